@@ -0,0 +1,74 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.LifestyleProfile;
+import com.petconnect.project.entity.Pet;
+import com.petconnect.project.repository.PetFeatureRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scoring one pet entity against a lifestyle profile, the path used outside
+ * ranking; compiling a scoring plan; and scoring one indexed pet with it, the
+ * path used inside ranking.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompatibilityScoreBenchmark {
+
+    private static final int PETS = 1_024;
+
+    @Param
+    public SyntheticCatalogue.ProfileShape shape;
+
+    private ForkJoinPool matchScoringPool;
+    private MatchmakingService matchmakingService;
+    private LifestyleProfile lifestyle;
+    private MatchCriteria criteria;
+    private ScoringPlan plan;
+    private Pet[] pets;
+    private PetMatchIndex.Snapshot snapshot;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        matchScoringPool = new ForkJoinPool(1);
+        matchmakingService = new SyntheticCatalogue(0, new MatchingProperties(), matchScoringPool).matchmakingService();
+        lifestyle = shape.profile();
+        criteria = MatchCriteria.from(lifestyle);
+        plan = ScoringPlan.compile(criteria, matchmakingService.getScoringWeights());
+
+        pets = new Pet[PETS];
+        List<PetFeatureRow> rows = new ArrayList<>(PETS);
+        for (int index = 0; index < PETS; index++) {
+            pets[index] = SyntheticCatalogue.pet(index);
+            rows.add(PetFeatureRow.from(pets[index]));
+        }
+        snapshot = PetMatchIndex.Snapshot.of(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        matchScoringPool.shutdown();
+    }
+
+    @Benchmark
+    public double calculateCompatibilityScore() {
+        return matchmakingService.calculateCompatibilityScore(lifestyle, pets[next++ & (PETS - 1)]);
+    }
+
+    @Benchmark
+    public ScoringPlan compileScoringPlan() {
+        return ScoringPlan.compile(criteria, matchmakingService.getScoringWeights());
+    }
+
+    @Benchmark
+    public int scoreIndexedPet() {
+        return plan.scoreCents(snapshot, next++ & (PETS - 1));
+    }
+}
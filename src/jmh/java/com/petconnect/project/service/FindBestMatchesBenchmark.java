@@ -0,0 +1,61 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * End-to-end ranking of the first results page, with and without a cached
+ * ranking, over catalogues of increasing size.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FindBestMatchesBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int petCount;
+
+    @Param
+    public SyntheticCatalogue.ProfileShape shape;
+
+    @Param({"true", "false"})
+    public boolean bucketPruning;
+
+    private ForkJoinPool matchScoringPool;
+    private MatchResultCache matchResultCache;
+    private MatchmakingService matchmakingService;
+    private User adopter;
+
+    @Setup
+    public void setUp() {
+        MatchingProperties matchingProperties = new MatchingProperties();
+        matchingProperties.setBucketPruning(bucketPruning);
+        matchScoringPool = new ForkJoinPool(matchingProperties.getParallelPoolSize());
+        SyntheticCatalogue catalogue = new SyntheticCatalogue(petCount, matchingProperties, matchScoringPool);
+        matchResultCache = catalogue.matchResultCache();
+        matchmakingService = catalogue.matchmakingService();
+        adopter = SyntheticCatalogue.adopter(shape);
+        // Loads the index outside the measurement
+        matchmakingService.findBestMatches(adopter, 0, matchingProperties.getPageSize());
+    }
+
+    @TearDown
+    public void tearDown() {
+        matchScoringPool.shutdown();
+    }
+
+    @Benchmark
+    public MatchmakingService.MatchPage findBestMatches() {
+        matchResultCache.invalidateAll();
+        return matchmakingService.findBestMatches(adopter, 0, 12);
+    }
+
+    @Benchmark
+    public MatchmakingService.MatchPage findBestMatchesCached() {
+        return matchmakingService.findBestMatches(adopter, 0, 12);
+    }
+}
@@ -0,0 +1,59 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.repository.PetFeatureRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Building the "why this match" explanation: collecting the reason bitmask while
+ * ranking, and rendering it to text when a result is shown.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatchExplanationBenchmark {
+
+    private static final int PETS = 1_024;
+
+    @Param
+    public SyntheticCatalogue.ProfileShape shape;
+
+    private ForkJoinPool matchScoringPool;
+    private MatchmakingService matchmakingService;
+    private MatchCriteria criteria;
+    private PetMatchIndex.Snapshot snapshot;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        matchScoringPool = new ForkJoinPool(1);
+        matchmakingService = new SyntheticCatalogue(0, new MatchingProperties(), matchScoringPool).matchmakingService();
+        criteria = MatchCriteria.from(shape.profile());
+
+        List<PetFeatureRow> rows = new ArrayList<>(PETS);
+        for (int index = 0; index < PETS; index++) {
+            rows.add(SyntheticCatalogue.featureRow(index));
+        }
+        snapshot = PetMatchIndex.Snapshot.of(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        matchScoringPool.shutdown();
+    }
+
+    @Benchmark
+    public int matchReasons() {
+        return matchmakingService.matchReasons(criteria, snapshot, next++ & (PETS - 1));
+    }
+
+    @Benchmark
+    public String generateMatchExplanation() {
+        return MatchReason.describe(matchmakingService.matchReasons(criteria, snapshot, next++ & (PETS - 1)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.petconnect.project.service;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the matching benchmarks twice, once for throughput in ops/s and once for
+ * average time in ns/op, both with the GC profiler so allocation rate and bytes
+ * per operation are reported. Any JMH command line option other than mode and
+ * time unit is passed through, e.g. a benchmark filter or {@code -p petCount=1000}.
+ */
+public final class MatchingBenchmarks {
+
+    private MatchingBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        run(commandLine, Mode.Throughput, TimeUnit.SECONDS);
+        run(commandLine, Mode.AverageTime, TimeUnit.NANOSECONDS);
+    }
+
+    private static void run(Options commandLine, Mode mode, TimeUnit timeUnit) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .mode(mode)
+                .timeUnit(timeUnit)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,202 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.*;
+import com.petconnect.project.repository.MatchScoreRepository;
+import com.petconnect.project.repository.MatchScoreSummaryRepository;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.PetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Deterministic pets and adopters for the matching benchmarks, wired into a
+ * {@link MatchmakingService} whose repositories are in-memory stubs.
+ *
+ * Pet {@code i} always has the same attributes, so runs are comparable across
+ * catalogue sizes and over time.
+ */
+public final class SyntheticCatalogue {
+
+    private static final String[] NOISE_LEVELS = {"quiet", "moderate", "vocal"};
+    private static final int[] FEES = {0, 5_000, 7_500, 10_000, 15_000, 25_000, 40_000};
+
+    private final int petCount;
+    private final MatchResultCache matchResultCache;
+    private final MatchmakingService matchmakingService;
+
+    SyntheticCatalogue(int petCount, MatchingProperties matchingProperties, ForkJoinPool matchScoringPool) {
+        this.petCount = petCount;
+        PetRepository petRepository = stub(PetRepository.class, this::answerPetQuery);
+        this.matchResultCache = new MatchResultCache(matchingProperties, new SimpleMeterRegistry());
+        this.matchmakingService = new MatchmakingService(petRepository, new PetMatchIndex(petRepository),
+                matchResultCache, new ScoringPlanner(matchingProperties), stub(MatchScoreRepository.class, (name, args) -> null),
+                stub(MatchScoreSummaryRepository.class, (name, args) -> Optional.empty()),
+                matchingProperties, matchScoringPool);
+    }
+
+    MatchmakingService matchmakingService() {
+        return matchmakingService;
+    }
+
+    MatchResultCache matchResultCache() {
+        return matchResultCache;
+    }
+
+    static UUID petId(int index) {
+        return new UUID(0x5EED_0000_0000_0000L, index);
+    }
+
+    static PetFeatureRow featureRow(int index) {
+        SplittableRandom random = new SplittableRandom(index * 0x9E37_79B9_7F4A_7C15L);
+        // Skewed towards the common cases: medium adult dogs with moderate energy
+        return new PetFeatureRow(petId(index),
+                pick(random, PetSize.values(), 2, 4, 3, 1),
+                pick(random, PetAgeGroup.values(), 2, 3, 4, 1),
+                BigDecimal.valueOf(FEES[random.nextInt(FEES.length)], 2),
+                pick(random, EnergyLevel.values(), 2, 4, 3, 1),
+                pick(random, SociabilityLevel.values(), 1, 3, 4, 2),
+                pick(random, TrainabilityLevel.values(), 3, 4, 2, 1),
+                NOISE_LEVELS[random.nextInt(NOISE_LEVELS.length)],
+                1 + random.nextInt(5));
+    }
+
+    static Pet pet(int index) {
+        PetFeatureRow row = featureRow(index);
+        Pet pet = new Pet();
+        pet.setId(row.id());
+        pet.setName("Pet " + index);
+        pet.setSpecies("Dog");
+        pet.setSize(row.size());
+        pet.setAgeGroup(row.ageGroup());
+        pet.setAdoptionFee(row.adoptionFee());
+        pet.setAvailable(true);
+
+        PersonalityProfile personality = new PersonalityProfile();
+        personality.setEnergyLevel(row.energyLevel());
+        personality.setSociability(row.sociability());
+        personality.setTrainability(row.trainability());
+        personality.setNoiseLevel(row.noiseLevel());
+        personality.setAffectionLevel(row.affectionLevel());
+        personality.setPet(pet);
+        pet.setPersonalityProfile(personality);
+        return pet;
+    }
+
+    static User adopter(ProfileShape shape) {
+        User user = new User();
+        user.setId(UUID.nameUUIDFromBytes(shape.name().getBytes()));
+        user.setUsername(shape.name().toLowerCase());
+        user.setLifestyleProfile(shape.profile());
+        return user;
+    }
+
+    private Object answerPetQuery(String method, Object[] args) {
+        return switch (method) {
+            case "findAvailablePetFeatures" -> {
+                List<PetFeatureRow> rows = new ArrayList<>(petCount);
+                for (int index = 0; index < petCount; index++) {
+                    rows.add(featureRow(index));
+                }
+                yield rows;
+            }
+            case "findAllWithDetailsByIdIn" -> {
+                List<Pet> pets = new ArrayList<>();
+                for (Object id : (Collection<?>) args[0]) {
+                    pets.add(pet((int) ((UUID) id).getLeastSignificantBits()));
+                }
+                yield pets;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        };
+    }
+
+    private static <E> E pick(SplittableRandom random, E[] values, int... weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private static <T> T stub(Class<T> repository, Answer answer) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> method.getDeclaringClass() == Object.class
+                        ? method.invoke(answer, args)
+                        : answer.apply(method.getName(), args)));
+    }
+
+    @FunctionalInterface
+    private interface Answer {
+        Object apply(String method, Object[] args);
+    }
+
+    /**
+     * Adopter profiles that exercise different branches of the scorer
+     */
+    public enum ProfileShape {
+        APARTMENT_FIRST_TIME("apartment", "none", EnergyLevel.LOW, "first_time", false, false,
+                PetSize.SMALL, PetAgeGroup.ADULT, "150.00"),
+        FAMILY_HOUSE_WITH_YARD("house", "large", EnergyLevel.HIGH, "some_experience", true, true,
+                PetSize.LARGE, PetAgeGroup.YOUNG, "300.00"),
+        EXPERIENCED_NO_BUDGET("house", "small", EnergyLevel.VERY_HIGH, "very_experienced", false, true,
+                null, null, null),
+        NO_PREFERENCES("condo", null, EnergyLevel.MODERATE, "some_experience", false, false,
+                null, null, "0.00");
+
+        private final String livingSituation;
+        private final String yardSize;
+        private final EnergyLevel activityLevel;
+        private final String experienceLevel;
+        private final boolean hasChildren;
+        private final boolean hasOtherPets;
+        private final PetSize preferredPetSize;
+        private final PetAgeGroup preferredPetAge;
+        private final String maxAdoptionFee;
+
+        ProfileShape(String livingSituation, String yardSize, EnergyLevel activityLevel, String experienceLevel,
+                     boolean hasChildren, boolean hasOtherPets, PetSize preferredPetSize,
+                     PetAgeGroup preferredPetAge, String maxAdoptionFee) {
+            this.livingSituation = livingSituation;
+            this.yardSize = yardSize;
+            this.activityLevel = activityLevel;
+            this.experienceLevel = experienceLevel;
+            this.hasChildren = hasChildren;
+            this.hasOtherPets = hasOtherPets;
+            this.preferredPetSize = preferredPetSize;
+            this.preferredPetAge = preferredPetAge;
+            this.maxAdoptionFee = maxAdoptionFee;
+        }
+
+        LifestyleProfile profile() {
+            LifestyleProfile profile = new LifestyleProfile();
+            profile.setLivingSituation(livingSituation);
+            profile.setYardSize(yardSize);
+            profile.setActivityLevel(activityLevel);
+            profile.setExperienceLevel(experienceLevel);
+            profile.setTimeAvailability(4);
+            profile.setHasChildren(hasChildren);
+            profile.setHasOtherPets(hasOtherPets);
+            profile.setPreferredPetSize(preferredPetSize);
+            profile.setPreferredPetAge(preferredPetAge);
+            profile.setMaxAdoptionFee(maxAdoptionFee != null ? new BigDecimal(maxAdoptionFee) : null);
+            return profile;
+        }
+    }
+}
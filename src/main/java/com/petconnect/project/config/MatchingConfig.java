@@ -0,0 +1,56 @@
+package com.petconnect.project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(MatchingProperties.class)
+public class MatchingConfig {
+
+    /**
+     * Pool that large catalogues are ranked on. It is separate from the common pool
+     * and never grows past its configured size, so matching cannot take threads
+     * from Tomcat. Pool size, queued tasks and steals are published as
+     * {@code executor.*} metrics named {@code matchScoring}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool matchScoringPool(MatchingProperties matchingProperties, MeterRegistry meterRegistry) {
+        int poolSize = Math.max(1, matchingProperties.getParallelPoolSize());
+        AtomicInteger threadCount = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(poolSize,
+                factoryPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(factoryPool);
+                    thread.setName("match-scoring-" + threadCount.incrementAndGet());
+                    return thread;
+                },
+                null, false, 0, poolSize, 1, saturatedPool -> true, 60, TimeUnit.SECONDS);
+        new ExecutorServiceMetrics(pool, "matchScoring", Tags.empty()).bindTo(meterRegistry);
+        return pool;
+    }
+
+    /**
+     * Threads that streamed match rankings run on, so a results page that is still
+     * being scored holds one of these rather than a Tomcat thread. Published as
+     * {@code executor.*} metrics named {@code matchStreaming}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService matchStreamingExecutor(MatchingProperties matchingProperties, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, matchingProperties.getStreamPoolSize()),
+                runnable -> new Thread(runnable, "match-streaming-" + threadCount.incrementAndGet()));
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "matchStreaming");
+    }
+}
@@ -0,0 +1,129 @@
+package com.petconnect.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the matchmaking engine, bound from {@code petconnect.matching.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "petconnect.matching")
+public class MatchingProperties {
+
+    /**
+     * Number of ranked pets shown per results page.
+     */
+    private int pageSize = 12;
+
+    /**
+     * Upper bound for a requested page size.
+     */
+    private int maxPageSize = 48;
+
+    /**
+     * Number of ranks kept per cached ranking; deeper pages are ranked on demand.
+     */
+    private int cacheDepth = 96;
+
+    /**
+     * Maximum number of lifestyle signatures whose ranked matches are cached.
+     */
+    private long cacheMaxEntries = 10_000;
+
+    /**
+     * How long a cached ranking is kept after it was computed.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * Maximum number of users whose nightly precomputed rankings are held in memory.
+     */
+    private long precomputedCacheMaxEntries = 10_000;
+
+    /**
+     * Number of adopter profiles read per query when ranking adopters for a pet.
+     */
+    private int reverseChunkSize = 5_000;
+
+    /**
+     * Number of adopters shown when ranking adopters for a pet.
+     */
+    private int reverseMaxResults = 50;
+
+    /**
+     * Cron expression for the nightly match score batch; "-" disables it.
+     */
+    private String batchCron = "0 0 3 * * *";
+
+    /**
+     * Number of lifestyle profiles ranked and committed per batch chunk.
+     */
+    private int batchChunkSize = 1_000;
+
+    /**
+     * Number of ranked pets stored per user by the batch.
+     */
+    private int batchTopN = 96;
+
+    /**
+     * Rank with the Vector API scoring kernel. Needs the JVM to be started with
+     * {@code --add-modules jdk.incubator.vector}; scoring stays scalar otherwise.
+     */
+    private boolean vectorScoring = false;
+
+    /**
+     * Rank with bucketed branch and bound, scoring only the pets that can affect
+     * the result. When disabled, or when a catalogue of at least
+     * {@code parallel-threshold} pets would need more scorings than one pool
+     * thread's share of the catalogue, every pet is scored, using the vector kernel
+     * and the parallel pool where they apply.
+     */
+    private boolean bucketPruning = true;
+
+    /**
+     * Catalogue size from which a ranking is split across the match scoring pool;
+     * smaller catalogues are scored on the request thread.
+     */
+    private int parallelThreshold = 20_000;
+
+    /**
+     * Number of threads in the dedicated match scoring pool.
+     */
+    private int parallelPoolSize = 4;
+
+    /**
+     * Catalogue size from which a results page that has to be scored live is sent
+     * as a shell first, with matches and quality counts streamed in over
+     * server-sent events; smaller catalogues are scored before the page renders.
+     */
+    private int streamThreshold = 20_000;
+
+    /**
+     * Minimum time between progress events of a streamed ranking.
+     */
+    private Duration streamProgressInterval = Duration.ofMillis(150);
+
+    /**
+     * Number of threads that streamed rankings run on.
+     */
+    private int streamPoolSize = 4;
+
+    /**
+     * Points each compatibility factor is worth; they must add up to 100. Can be
+     * changed at runtime from the admin dashboard.
+     */
+    private Weights weights = new Weights();
+
+    @Data
+    public static class Weights {
+        private int energy = 25;
+        private int size = 15;
+        private int age = 10;
+        private int budget = 10;
+        private int livingSituation = 15;
+        private int experience = 15;
+        private int social = 10;
+    }
+}
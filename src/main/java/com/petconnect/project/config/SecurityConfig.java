@@ -62,7 +62,7 @@ public class SecurityConfig {
                 .requestMatchers("/error", "/actuator/health").permitAll()
                 
                 // Admin only endpoints
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                 
                 // Shelter admin endpoints
                 .requestMatchers("/shelter/**").hasAnyRole("SHELTER_ADMIN", "ADMIN")
@@ -1,7 +1,10 @@
 package com.petconnect.project.controller;
 
+import com.petconnect.project.config.MatchingProperties;
 import com.petconnect.project.entity.User;
 import com.petconnect.project.repository.UserRepository;
+import com.petconnect.project.service.MatchmakingService;
+import com.petconnect.project.service.ScoringWeights;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,7 +12,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/admin")
@@ -19,14 +25,31 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class AdminController {
 
     private final UserRepository userRepository;
+    private final MatchmakingService matchmakingService;
 
     @GetMapping("/dashboard")
     public String dashboard(Model model, Authentication authentication) {
         String username = authentication.getName();
         User current = userRepository.findByUsername(username).orElse(null);
         model.addAttribute("currentUser", current);
+        model.addAttribute("scoringWeights", matchmakingService.getScoringWeights());
         return "admin/dashboard";
     }
+
+    @PostMapping("/matching/weights")
+    public String updateScoringWeights(@ModelAttribute MatchingProperties.Weights weights,
+                                       Authentication authentication,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            matchmakingService.updateScoringWeights(ScoringWeights.from(weights));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/admin/dashboard";
+        }
+        log.info("Scoring weights updated by {}", authentication.getName());
+        redirectAttributes.addFlashAttribute("success", "Scoring weights updated. Matches are being re-ranked with the new weights.");
+        return "redirect:/admin/dashboard";
+    }
 }
 
 
@@ -1,21 +1,36 @@
 package com.petconnect.project.controller;
 
+import com.petconnect.project.config.MatchingProperties;
 import com.petconnect.project.entity.*;
+import com.petconnect.project.event.LifestyleProfileChangedEvent;
 import com.petconnect.project.repository.LifestyleProfileRepository;
 import com.petconnect.project.repository.UserRepository;
 import com.petconnect.project.service.MatchmakingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 @Controller
 @RequestMapping("/matching")
@@ -23,9 +38,16 @@ import java.util.List;
 @Slf4j
 public class MatchmakingController {
 
+    private static final String RESULTS_FRAGMENTS = "matching/fragments/match-results";
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(2);
+
     private final UserRepository userRepository;
     private final LifestyleProfileRepository lifestyleProfileRepository;
     private final MatchmakingService matchmakingService;
+    private final MatchingProperties matchingProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpringTemplateEngine templateEngine;
+    private final ExecutorService matchStreamingExecutor;
 
     @GetMapping("/questionnaire")
     public String showQuestionnaire(Model model, Authentication authentication) {
@@ -95,40 +117,129 @@ public class MatchmakingController {
             lifestyleProfile.setUser(user);
             lifestyleProfileRepository.save(lifestyleProfile);
         }
+        eventPublisher.publishEvent(new LifestyleProfileChangedEvent(user.getId()));
 
         redirectAttributes.addFlashAttribute("success", "Your lifestyle profile has been saved! Finding your perfect matches...");
         return "redirect:/matching/results";
     }
 
+    /**
+     * Renders the results page. A page that is cached or precomputed, or whose
+     * catalogue is small, is rendered complete; otherwise only the shell is sent
+     * and the matches stream in from {@link #streamMatches}.
+     */
     @GetMapping("/results")
-    public String showMatches(Model model, Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findByIdWithLifestyleProfile(
-                userRepository.findByUsername(username)
-                        .orElseThrow(() -> new RuntimeException("User not found"))
-                        .getId()
-        ).orElseThrow(() -> new RuntimeException("User not found"));
+    public String showMatches(@RequestParam(defaultValue = "0") int page,
+                              Model model, Authentication authentication) {
+        User user = findUserWithLifestyleProfile(authentication);
 
         if (user.getLifestyleProfile() == null) {
             return "redirect:/matching/questionnaire";
         }
 
-        List<MatchmakingService.PetMatchResult> matches = matchmakingService.findBestMatches(user);
-        
-        model.addAttribute("matches", matches);
         model.addAttribute("user", user);
-        model.addAttribute("hasMatches", !matches.isEmpty());
+        int pageSize = matchingProperties.getPageSize();
+        MatchmakingService.MatchPage matchPage = matchmakingService.findReadyMatches(user, page, pageSize);
+        if (matchPage == null) {
+            int petCount = matchmakingService.getIndexedPetCount();
+            if (petCount >= matchingProperties.getStreamThreshold()) {
+                model.addAttribute("streaming", true);
+                model.addAttribute("page", page);
+                model.addAllAttributes(countsModel(0, petCount, 0, 0, 0));
+                return "matching/results";
+            }
+            matchPage = matchmakingService.findBestMatches(user, page, pageSize);
+        }
 
-        // Categorize matches by quality
-        long excellentMatches = matches.stream().filter(m -> m.getCompatibilityScore() >= 85).count();
-        long greatMatches = matches.stream().filter(m -> m.getCompatibilityScore() >= 70 && m.getCompatibilityScore() < 85).count();
-        long goodMatches = matches.stream().filter(m -> m.getCompatibilityScore() >= 55 && m.getCompatibilityScore() < 70).count();
+        model.addAllAttributes(resultsModel(matchPage));
+        return "matching/results";
+    }
 
-        model.addAttribute("excellentMatches", excellentMatches);
-        model.addAttribute("greatMatches", greatMatches);
-        model.addAttribute("goodMatches", goodMatches);
+    /**
+     * Streams a ranking that is scored live as server-sent events of rendered
+     * fragments: "counts" with the quality counts so far, "match" with cards whose
+     * rank is final, and "done" with the complete results, after which the stream
+     * ends. Scoring runs on the match streaming executor.
+     */
+    @GetMapping(path = "/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMatches(@RequestParam(defaultValue = "0") int page,
+                                    Authentication authentication, Locale locale) {
+        User user = findUserWithLifestyleProfile(authentication);
 
-        return "matching/results";
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        matchStreamingExecutor.execute(() -> streamMatches(emitter, user, page, locale));
+        return emitter;
+    }
+
+    private void streamMatches(SseEmitter emitter, User user, int page, Locale locale) {
+        try {
+            MatchmakingService.MatchPage matchPage = matchmakingService.findBestMatches(user, page,
+                    matchingProperties.getPageSize(), new MatchmakingService.MatchListener() {
+                        @Override
+                        public void onCounts(int scored, int total, int excellentMatches, int greatMatches,
+                                             int goodMatches) {
+                            send(emitter, "counts", render("match-stats",
+                                    countsModel(scored, total, excellentMatches, greatMatches, goodMatches), locale));
+                        }
+
+                        @Override
+                        public void onMatches(List<MatchmakingService.PetMatchResult> matches) {
+                            StringBuilder cards = new StringBuilder();
+                            for (MatchmakingService.PetMatchResult match : matches) {
+                                cards.append(render("match-card", Map.of("match", match), locale));
+                            }
+                            send(emitter, "match", cards.toString());
+                        }
+                    });
+            send(emitter, "done", render("match-results", resultsModel(matchPage), locale));
+            emitter.complete();
+        } catch (UncheckedIOException e) {
+            // The client went away; abandoning the ranking is all there is to do
+            log.debug("Stopped streaming matches for user {}: {}", user.getUsername(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to stream matches for user {}", user.getUsername(), e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private String render(String fragment, Map<String, Object> variables, Locale locale) {
+        return templateEngine.process(RESULTS_FRAGMENTS, Set.of(fragment), new Context(locale, variables));
+    }
+
+    private static void send(SseEmitter emitter, String event, String html) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(html));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> resultsModel(MatchmakingService.MatchPage matchPage) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("matchPage", matchPage);
+        model.put("matches", matchPage.getMatches());
+        model.put("hasMatches", !matchPage.isEmpty());
+
+        // Quality counts cover every available pet, not just this page
+        model.put("excellentMatches", matchPage.getExcellentMatches());
+        model.put("greatMatches", matchPage.getGreatMatches());
+        model.put("goodMatches", matchPage.getGoodMatches());
+        return model;
+    }
+
+    private static Map<String, Object> countsModel(int scored, int total, int excellentMatches, int greatMatches,
+                                                   int goodMatches) {
+        return Map.of("scored", scored, "total", total, "excellentMatches", excellentMatches,
+                "greatMatches", greatMatches, "goodMatches", goodMatches);
+    }
+
+    private User findUserWithLifestyleProfile(Authentication authentication) {
+        String username = authentication.getName();
+        return userRepository.findByIdWithLifestyleProfile(
+                userRepository.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("User not found"))
+                        .getId()
+        ).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     @GetMapping("/profile")
@@ -159,6 +270,7 @@ public class MatchmakingController {
         // Delete existing profile to force retaking questionnaire
         if (user.getLifestyleProfile() != null) {
             lifestyleProfileRepository.delete(user.getLifestyleProfile());
+            eventPublisher.publishEvent(new LifestyleProfileChangedEvent(user.getId()));
         }
 
         return "redirect:/matching/questionnaire";
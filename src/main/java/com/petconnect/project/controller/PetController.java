@@ -1,26 +1,324 @@
 package com.petconnect.project.controller;
 
-import com.petconnect.project.entity.Pet;
+import com.petconnect.project.exception.ResourceNotFoundException;
+import com.petconnect.project.repository.PetCard;
 import com.petconnect.project.repository.PetRepository;
+import com.petconnect.project.service.CatalogVersion;
+import com.petconnect.project.service.PetDetail;
+import com.petconnect.project.service.PetDetailCache;
+import com.petconnect.project.service.PetFacetIndex;
+import com.petconnect.project.service.PetFacetIndex.Facet;
+import com.petconnect.project.service.PetFacetIndex.FeeRange;
+import com.petconnect.project.service.PetFilter;
+import com.petconnect.project.service.PetSearchIndex;
+import com.petconnect.project.service.TypeaheadIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/pets")
 @RequiredArgsConstructor
 public class PetController {
 
+    private static final int BROWSE_PAGE_SIZE = 24;
+    private static final int MAX_SEARCH_RESULTS = 20 * BROWSE_PAGE_SIZE;
+    private static final int MAX_SUGGESTIONS = 8;
+
     private final PetRepository petRepository;
+    private final PetSearchIndex petSearchIndex;
+    private final PetFacetIndex petFacetIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final PetDetailCache petDetailCache;
+    private final CatalogVersion catalogVersion;
 
+    /**
+     * First page of available pets, newest first, or of the pets matching
+     * {@code q}, best match first, narrowed by the sidebar facets. Further pages
+     * are fetched by {@link #browseMorePets}, {@link #filterMorePets} or
+     * {@link #searchMorePets} as the last card scrolls into view.
+     *
+     * Browse pages are validated by the {@link CatalogVersion}, so a repeat visit
+     * to an unchanged catalogue gets a 304 without querying or rendering anything.
+     */
     @GetMapping
-    public String browsePets(Model model) {
-        List<Pet> pets = petRepository.findAll();
-        model.addAttribute("pets", pets);
+    public String browsePets(@RequestParam(required = false) String q,
+                             @ModelAttribute("filter") PetFilter filter,
+                             ServletWebRequest request,
+                             Model model) {
+        if (notModified(request, catalogVersion.etag())) {
+            return null;
+        }
+        PetFacetIndex.Selection selection;
+        if (StringUtils.hasText(q)) {
+            selection = addSearchPage(model, q, filter, 0);
+        } else if (!filter.isEmpty()) {
+            selection = addFilterPage(model, filter, PetFacetIndex.FIRST_PAGE);
+        } else {
+            selection = petFacetIndex.select(filter, null, PetFacetIndex.FIRST_PAGE, 0);
+            addBrowsePage(model, petRepository.findNewestAvailablePetCards(Limit.of(BROWSE_PAGE_SIZE + 1)));
+        }
+        model.addAttribute("facets", facetGroups(selection, q, filter));
+        model.addAttribute("total", selection.total());
         return "pets/browse";
     }
+
+    /**
+     * Next page of cards after the given keyset cursor, as an HTMX fragment. Seeking
+     * past the cursor on the (available, created_at, id) index costs the same on
+     * every page, unlike an offset.
+     */
+    @GetMapping("/page")
+    public String browseMorePets(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                 @RequestParam UUID beforeId,
+                                 ServletWebRequest request,
+                                 Model model) {
+        if (notModified(request, catalogVersion.etag())) {
+            return null;
+        }
+        addBrowsePage(model, petRepository.findAvailablePetCardsBefore(before, beforeId,
+                Limit.of(BROWSE_PAGE_SIZE + 1)));
+        return "pets/fragments/pet-cards :: pet-cards";
+    }
+
+    /**
+     * Next page of filtered cards as an HTMX fragment, starting at the facet index
+     * slot the previous page stopped at.
+     */
+    @GetMapping(path = "/page", params = "after")
+    public String filterMorePets(@ModelAttribute("filter") PetFilter filter,
+                                 @RequestParam int after,
+                                 ServletWebRequest request,
+                                 Model model) {
+        if (notModified(request, catalogVersion.etag())) {
+            return null;
+        }
+        addFilterPage(model, filter, after);
+        return "pets/fragments/pet-cards :: pet-cards";
+    }
+
+    /**
+     * Next page of search results as an HTMX fragment. The query is ranked again
+     * by the {@link PetSearchIndex}, which takes microseconds, and only the pets
+     * on the page are read from the database.
+     */
+    @GetMapping(path = "/page", params = "q")
+    public String searchMorePets(@RequestParam String q,
+                                 @ModelAttribute("filter") PetFilter filter,
+                                 @RequestParam int offset,
+                                 ServletWebRequest request,
+                                 Model model) {
+        if (notModified(request, catalogVersion.etag())) {
+            return null;
+        }
+        addSearchPage(model, q, filter, offset);
+        return "pets/fragments/pet-cards :: pet-cards";
+    }
+
+    /**
+     * Search box suggestions as the options of its datalist, for HTMX.
+     */
+    @GetMapping(path = "/suggestions", headers = "HX-Request")
+    public String suggestionOptions(@RequestParam(defaultValue = "") String q, Model model) {
+        model.addAttribute("suggestions", typeaheadIndex.suggestPets(q, MAX_SUGGESTIONS));
+        return "fragments/suggestions :: suggestions";
+    }
+
+    @GetMapping("/suggestions")
+    @ResponseBody
+    public List<TypeaheadIndex.Suggestion> suggestions(@RequestParam(defaultValue = "") String q) {
+        return typeaheadIndex.suggestPets(q, MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Detail page of a pet, available or not, served from the {@link PetDetailCache}
+     * and validated by the pet's update timestamp.
+     */
+    @GetMapping("/{id}")
+    public String petDetail(@PathVariable UUID id, ServletWebRequest request, Model model) {
+        PetDetail pet = petDetailCache.get(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pet", "id", id));
+        if (notModified(request, pet.etag())) {
+            return null;
+        }
+        model.addAttribute("pet", pet);
+        return "pets/detail";
+    }
+
+    private PetFacetIndex.Selection addSearchPage(Model model, String query, PetFilter filter, int offset) {
+        List<UUID> ranked = petSearchIndex.search(query, MAX_SEARCH_RESULTS);
+        PetFacetIndex.Selection selection = petFacetIndex.select(filter, ranked, PetFacetIndex.FIRST_PAGE,
+                filter.isEmpty() ? 0 : Integer.MAX_VALUE);
+        if (!filter.isEmpty()) {
+            // The selection comes back newest first, so filter the ranking instead
+            Set<UUID> selected = new HashSet<>(selection.petIds());
+            ranked = ranked.stream().filter(selected::contains).toList();
+        }
+        int from = Math.max(0, Math.min(offset, ranked.size()));
+        int to = Math.min(ranked.size(), from + BROWSE_PAGE_SIZE);
+
+        model.addAttribute("query", query);
+        model.addAttribute("pets", findCards(ranked.subList(from, to)));
+        model.addAttribute("nextPage", to < ranked.size()
+                ? pageUri(query, filter).queryParam("offset", to).encode().toUriString() : null);
+        return selection;
+    }
+
+    private PetFacetIndex.Selection addFilterPage(Model model, PetFilter filter, int fromSlot) {
+        PetFacetIndex.Selection selection = petFacetIndex.select(filter, null, fromSlot, BROWSE_PAGE_SIZE);
+        model.addAttribute("pets", findCards(selection.petIds()));
+        model.addAttribute("nextPage", selection.nextSlot() >= 0
+                ? pageUri(null, filter).queryParam("after", selection.nextSlot()).encode().toUriString() : null);
+        return selection;
+    }
+
+    // One row past the page is fetched to learn whether another page follows
+    private static void addBrowsePage(Model model, List<PetCard> cards) {
+        boolean hasMore = cards.size() > BROWSE_PAGE_SIZE;
+        List<PetCard> pets = hasMore ? cards.subList(0, BROWSE_PAGE_SIZE) : cards;
+        PetCard last = hasMore ? pets.get(pets.size() - 1) : null;
+        model.addAttribute("pets", pets);
+        model.addAttribute("nextPage", last != null
+                ? UriComponentsBuilder.fromPath("/pets/page")
+                        .queryParam("before", last.createdAt())
+                        .queryParam("beforeId", last.id())
+                        .encode().toUriString()
+                : null);
+    }
+
+    /**
+     * Sends {@code etag} with a no-cache policy, so browsers and crawlers keep the
+     * page but revalidate it, and tells whether the request's If-None-Match already
+     * matches, in which case the response is a bodiless 304.
+     */
+    private static boolean notModified(ServletWebRequest request, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(etag);
+    }
+
+    // Kept in the given order; a pet adopted since it was indexed is skipped
+    private List<PetCard> findCards(List<UUID> petIds) {
+        Map<UUID, PetCard> cardsById = petIds.isEmpty() ? Map.of()
+                : petRepository.findAvailablePetCardsByIdIn(petIds).stream()
+                        .collect(Collectors.toMap(PetCard::id, Function.identity()));
+        return petIds.stream().map(cardsById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Sidebar entries for every facet value that matches at least one pet or is
+     * selected, each linking to the browse page with that value toggled.
+     */
+    private static List<FacetGroup> facetGroups(PetFacetIndex.Selection selection, String query, PetFilter filter) {
+        MultiValueMap<String, String> params = filterParams(query, filter);
+        List<FacetGroup> groups = new ArrayList<>();
+        List<FacetOption> flags = new ArrayList<>();
+        for (Facet facet : Facet.values()) {
+            List<FacetOption> options = facet.isFlag() ? flags : new ArrayList<>();
+            selection.counts().get(facet).forEach((value, count) -> {
+                boolean selected = value.equalsIgnoreCase(String.valueOf(params.getFirst(facet.getParameter())));
+                if (count == 0 && !selected) {
+                    return;
+                }
+                MultiValueMap<String, String> toggled = new LinkedMultiValueMap<>(params);
+                if (selected) {
+                    toggled.remove(facet.getParameter());
+                } else {
+                    toggled.set(facet.getParameter(), value);
+                }
+                String href = UriComponentsBuilder.fromPath("/pets").queryParams(toggled).encode().toUriString();
+                options.add(new FacetOption(optionLabel(facet, value), count, selected, href));
+            });
+            if (!facet.isFlag() && !options.isEmpty()) {
+                groups.add(new FacetGroup(facet.getLabel(), options));
+            }
+        }
+        if (!flags.isEmpty()) {
+            groups.add(new FacetGroup("Temperament", flags));
+        }
+        return groups;
+    }
+
+    private static String optionLabel(Facet facet, String value) {
+        return switch (facet) {
+            case SPECIES -> value;
+            case SIZE, AGE_GROUP -> StringUtils.capitalize(value.replace('_', ' ').toLowerCase(Locale.ROOT));
+            case FEE -> FeeRange.valueOf(value).getLabel();
+            default -> facet.getLabel();
+        };
+    }
+
+    private static UriComponentsBuilder pageUri(String query, PetFilter filter) {
+        return UriComponentsBuilder.fromPath("/pets/page").queryParams(filterParams(query, filter));
+    }
+
+    private static MultiValueMap<String, String> filterParams(String query, PetFilter filter) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        if (StringUtils.hasText(query)) {
+            params.set("q", query);
+        }
+        if (filter.getSpecies() != null) {
+            params.set(Facet.SPECIES.getParameter(), filter.getSpecies());
+        }
+        if (filter.getSize() != null) {
+            params.set(Facet.SIZE.getParameter(), filter.getSize().name());
+        }
+        if (filter.getAgeGroup() != null) {
+            params.set(Facet.AGE_GROUP.getParameter(), filter.getAgeGroup().name());
+        }
+        if (filter.getFee() != null) {
+            params.set(Facet.FEE.getParameter(), filter.getFee().name());
+        }
+        if (filter.isGoodWithKids()) {
+            params.set(Facet.GOOD_WITH_KIDS.getParameter(), "true");
+        }
+        if (filter.isGoodWithDogs()) {
+            params.set(Facet.GOOD_WITH_DOGS.getParameter(), "true");
+        }
+        if (filter.isGoodWithCats()) {
+            params.set(Facet.GOOD_WITH_CATS.getParameter(), "true");
+        }
+        if (filter.isHouseTrained()) {
+            params.set(Facet.HOUSE_TRAINED.getParameter(), "true");
+        }
+        return params;
+    }
+
+    /**
+     * One sidebar facet; the flag facets share a single group.
+     */
+    public record FacetGroup(String label, List<FacetOption> options) {
+    }
+
+    public record FacetOption(String label, int count, boolean selected, String href) {
+    }
 }
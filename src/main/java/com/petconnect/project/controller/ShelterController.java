@@ -1,21 +1,37 @@
 package com.petconnect.project.controller;
 
 import com.petconnect.project.entity.*;
+import com.petconnect.project.event.PetChangedEvent;
 import com.petconnect.project.repository.*;
+import com.petconnect.project.service.ApplicationFilter;
+import com.petconnect.project.service.ReverseMatchingService;
+import com.petconnect.project.service.ShelterStatsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Controller
@@ -25,14 +41,23 @@ import java.util.UUID;
 @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
 public class ShelterController {
 
+    private static final int DASHBOARD_RECENT_ROWS = 5;
+    private static final int APPLICATION_PAGE_SIZE = 20;
+    private static final int BULK_UPDATE_MAX_APPLICATIONS = 200;
+
     private final UserRepository userRepository;
     private final ShelterRepository shelterRepository;
     private final PetRepository petRepository;
     private final AdoptionApplicationRepository adoptionApplicationRepository;
     private final PersonalityProfileRepository personalityProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReverseMatchingService reverseMatchingService;
+    private final ShelterStatsService shelterStatsService;
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model, Authentication authentication) {
+    public String dashboard(@ModelAttribute("applicationFilter") ApplicationFilter filter,
+                            Model model,
+                            Authentication authentication) {
         String username = authentication.getName();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -41,24 +66,53 @@ public class ShelterController {
         Shelter shelter = shelterRepository.findByAdminUserId(user.getId())
                 .orElseThrow(() -> new RuntimeException("No shelter found for this user"));
 
-        // Get dashboard statistics
-        List<Pet> shelterPets = petRepository.findByShelter(shelter.getId());
-        List<AdoptionApplication> applications = adoptionApplicationRepository.findByShelterIdWithDetails(shelter.getId());
-        long pendingApplications = adoptionApplicationRepository.countPendingApplicationsByShelter(shelter.getId());
+        // Get dashboard statistics; counters come from the shelter's maintained
+        // stats row, and the application table and recent activity lists read
+        // only the rows they show
+        ShelterStats stats = shelterStatsService.get(shelter.getId());
 
         model.addAttribute("shelter", shelter);
         model.addAttribute("user", user);
-        model.addAttribute("pets", shelterPets);
-        model.addAttribute("applications", applications);
-        model.addAttribute("pendingApplications", pendingApplications);
-        model.addAttribute("totalPets", shelterPets.size());
-        model.addAttribute("availablePets", shelterPets.stream().filter(pet -> pet.getAvailable()).count());
-        model.addAttribute("totalApplications", applications.size());
+        addApplicationPage(model, shelter, filter, null, null);
+        model.addAttribute("petOptions", petRepository.findPetOptionsByShelter(shelter.getId()));
+        model.addAttribute("recentApplications", adoptionApplicationRepository.findNewestByShelterIdWithDetails(
+                shelter.getId(), Limit.of(DASHBOARD_RECENT_ROWS)));
+        List<Pet> recentPets = petRepository.findNewestByShelter(shelter.getId(), Limit.of(DASHBOARD_RECENT_ROWS));
+        assignPendingApplicationCounts(shelter, recentPets);
+        model.addAttribute("recentPets", recentPets);
+        model.addAttribute("pendingApplications", stats.getPendingApplications());
+        model.addAttribute("totalPets", stats.getTotalPets());
+        model.addAttribute("availablePets", stats.getAvailablePets());
+        model.addAttribute("totalApplications", stats.getTotalApplications());
+        model.addAttribute("atCapacity", stats.isAtCapacity(shelter.getCapacity()));
 
         return "shelter/dashboard";
     }
 
+    /**
+     * Next page of the dashboard's application table as HTMX row fragments, or its
+     * first page when no cursor is given, as when the filters change. Seeking past
+     * the (application date, id) cursor on the shelter's index costs the same on
+     * every page, however long the shelter's history.
+     */
+    @GetMapping("/applications")
+    public String applications(@ModelAttribute("applicationFilter") ApplicationFilter filter,
+                               @RequestParam(required = false)
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursor,
+                               @RequestParam(required = false) UUID cursorId,
+                               Authentication authentication,
+                               Model model) {
+        User user = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Shelter shelter = shelterRepository.findByAdminUserId(user.getId())
+                .orElseThrow(() -> new RuntimeException("No shelter found for this user"));
+
+        addApplicationPage(model, shelter, filter, cursor, cursorId);
+        return "shelter/fragments/application-rows :: application-rows";
+    }
+
     @PostMapping("/applications/update/{applicationId}")
+    @Transactional
     public String updateApplicationStatus(@PathVariable UUID applicationId,
                                         @RequestParam ApplicationStatus status,
                                         @RequestParam(required = false) String reviewerNotes,
@@ -81,6 +135,7 @@ public class ShelterController {
         }
 
         // Update application
+        ApplicationStatus previousStatus = application.getStatus();
         application.setStatus(status);
         application.setReviewDate(LocalDateTime.now());
         if (reviewerNotes != null && !reviewerNotes.trim().isEmpty()) {
@@ -90,8 +145,11 @@ public class ShelterController {
         // If approved, mark pet as unavailable
         if (status == ApplicationStatus.APPROVED) {
             Pet pet = application.getPet();
-            pet.setAvailable(false);
-            petRepository.save(pet);
+            if (Boolean.TRUE.equals(pet.getAvailable())) {
+                pet.setAvailable(false);
+                petRepository.save(pet);
+                shelterStatsService.petAvailabilityChanged(userShelter.getId(), false);
+            }
             
             // Reject all other pending applications for this pet
             List<AdoptionApplication> otherApplications = adoptionApplicationRepository.findByPetId(pet.getId());
@@ -100,19 +158,106 @@ public class ShelterController {
                     otherApp.setStatus(ApplicationStatus.REJECTED);
                     otherApp.setReviewerNotes("Pet has been adopted by another applicant");
                     otherApp.setReviewDate(LocalDateTime.now());
+                    shelterStatsService.applicationStatusChanged(userShelter.getId(),
+                            ApplicationStatus.PENDING, ApplicationStatus.REJECTED);
                 }
             }
             adoptionApplicationRepository.saveAll(otherApplications);
+            eventPublisher.publishEvent(new PetChangedEvent(pet.getId(), userShelter.getId()));
         }
 
         adoptionApplicationRepository.save(application);
+        shelterStatsService.applicationStatusChanged(userShelter.getId(), previousStatus, status);
         log.info("Application {} updated to status {} by user {}", applicationId, status, username);
 
         // Return the updated table row fragment for HTMX
-        model.addAttribute("application", application);
+        model.addAttribute("adoption", application);
         return "shelter/fragments/application-row :: application-row";
     }
 
+    /**
+     * Changes the status of many applications in one request. Ownership of all of
+     * them is verified with one query, and the changed rows are flushed together
+     * so they go out as JDBC batches where {@code hibernate.jdbc.batch_size} is set.
+     * Approving follows the single update: the pets become unavailable and their
+     * other pending applications are rejected. The changed rows, including those
+     * rejected that way, are returned as out-of-band HTMX swaps.
+     */
+    @PostMapping("/applications/bulk-update")
+    @Transactional
+    public String bulkUpdateApplicationStatus(@RequestParam(required = false) List<UUID> applicationIds,
+                                              @RequestParam ApplicationStatus status,
+                                              @RequestParam(required = false) String reviewerNotes,
+                                              Authentication authentication,
+                                              Model model) {
+        Set<UUID> ids = applicationIds != null ? new LinkedHashSet<>(applicationIds) : Set.of();
+        if (ids.size() > BULK_UPDATE_MAX_APPLICATIONS) {
+            throw new RuntimeException("At most " + BULK_UPDATE_MAX_APPLICATIONS + " applications can be updated at once");
+        }
+        Shelter userShelter = shelterRepository.findByAdminUserUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("No shelter found for this user"));
+
+        List<AdoptionApplication> applications = ids.isEmpty() ? List.of()
+                : adoptionApplicationRepository.findByShelterIdAndIdInWithDetails(userShelter.getId(), ids);
+        if (applications.size() != ids.size()) {
+            throw new RuntimeException("Unauthorized to update these applications");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<ApplicationStatus, Long> statusDelta = new EnumMap<>(ApplicationStatus.class);
+        List<AdoptionApplication> updated = new ArrayList<>(applications);
+        for (AdoptionApplication application : applications) {
+            statusDelta.merge(application.getStatus(), -1L, Long::sum);
+            statusDelta.merge(status, 1L, Long::sum);
+            application.setStatus(status);
+            application.setReviewDate(now);
+            if (reviewerNotes != null && !reviewerNotes.trim().isEmpty()) {
+                application.setReviewerNotes(reviewerNotes);
+            }
+        }
+
+        // If approved, mark the pets as unavailable and reject their other pending applications
+        List<Pet> adoptedPets = new ArrayList<>();
+        if (status == ApplicationStatus.APPROVED && !applications.isEmpty()) {
+            Map<UUID, Pet> pets = new LinkedHashMap<>();
+            for (AdoptionApplication application : applications) {
+                if (pets.put(application.getPet().getId(), application.getPet()) != null) {
+                    throw new RuntimeException("Only one application per pet can be approved");
+                }
+            }
+            for (Pet pet : pets.values()) {
+                if (Boolean.TRUE.equals(pet.getAvailable())) {
+                    pet.setAvailable(false);
+                    adoptedPets.add(pet);
+                }
+            }
+            for (AdoptionApplication otherApp : adoptionApplicationRepository.findByPetIdInAndStatusWithDetails(
+                    pets.keySet(), ApplicationStatus.PENDING)) {
+                if (!ids.contains(otherApp.getId())) {
+                    otherApp.setStatus(ApplicationStatus.REJECTED);
+                    otherApp.setReviewerNotes("Pet has been adopted by another applicant");
+                    otherApp.setReviewDate(now);
+                    statusDelta.merge(ApplicationStatus.PENDING, -1L, Long::sum);
+                    statusDelta.merge(ApplicationStatus.REJECTED, 1L, Long::sum);
+                    updated.add(otherApp);
+                }
+            }
+            petRepository.saveAll(adoptedPets);
+        }
+
+        adoptionApplicationRepository.saveAll(updated);
+        shelterStatsService.applicationsChanged(userShelter.getId(), statusDelta);
+        shelterStatsService.availablePetsChanged(userShelter.getId(), -adoptedPets.size());
+        for (Pet pet : adoptedPets) {
+            eventPublisher.publishEvent(new PetChangedEvent(pet.getId(), userShelter.getId()));
+        }
+        log.info("{} applications updated to status {} by user {}", applications.size(), status,
+                authentication.getName());
+
+        model.addAttribute("applications", updated);
+        return "shelter/fragments/application-rows :: updated-rows";
+    }
+
     @GetMapping("/applications/{applicationId}/details")
     public String getApplicationDetails(@PathVariable UUID applicationId, Model model, Authentication authentication) {
         String username = authentication.getName();
@@ -130,7 +275,7 @@ public class ShelterController {
             throw new RuntimeException("Unauthorized to view this application");
         }
 
-        model.addAttribute("application", application);
+        model.addAttribute("adoption", application);
         return "shelter/fragments/application-details :: application-details";
     }
 
@@ -144,7 +289,8 @@ public class ShelterController {
                 .orElseThrow(() -> new RuntimeException("No shelter found for this user"));
 
         List<Pet> pets = petRepository.findByShelter(shelter.getId());
-        
+        assignPendingApplicationCounts(shelter, pets);
+
         model.addAttribute("shelter", shelter);
         model.addAttribute("pets", pets);
         model.addAttribute("newPet", new Pet());
@@ -183,6 +329,7 @@ public class ShelterController {
     }
 
     @PostMapping("/pets")
+    @Transactional
     public String addPet(@Valid @ModelAttribute Pet pet,
                         BindingResult bindingResult,
                         Authentication authentication,
@@ -230,6 +377,8 @@ public class ShelterController {
         profile.setNoiseLevel("moderate");
         profile.setAdaptability(3);
         personalityProfileRepository.save(profile);
+        shelterStatsService.petAdded(shelter.getId(), true);
+        eventPublisher.publishEvent(new PetChangedEvent(savedPet.getId(), shelter.getId()));
 
         redirectAttributes.addFlashAttribute("success", "Pet " + pet.getName() + " has been added successfully!");
         return "redirect:/shelter/pets";
@@ -310,6 +459,7 @@ public class ShelterController {
         existingPet.setImageUrl(updatedPet.getImageUrl());
 
         petRepository.save(existingPet);
+        eventPublisher.publishEvent(new PetChangedEvent(existingPet.getId(), userShelter.getId()));
 
         redirectAttributes.addFlashAttribute("success", "Pet " + existingPet.getName() + " has been updated successfully!");
         return "redirect:/shelter/pets";
@@ -317,6 +467,7 @@ public class ShelterController {
 
     @PostMapping("/pets/{petId}/toggle-availability")
     @ResponseBody
+    @Transactional
     public ResponseEntity<String> togglePetAvailability(@PathVariable UUID petId, Authentication authentication) {
         String username = authentication.getName();
         User user = userRepository.findByUsername(username)
@@ -335,7 +486,80 @@ public class ShelterController {
 
         pet.setAvailable(!pet.getAvailable());
         petRepository.save(pet);
+        shelterStatsService.petAvailabilityChanged(userShelter.getId(), pet.getAvailable());
+        eventPublisher.publishEvent(new PetChangedEvent(pet.getId(), userShelter.getId()));
 
         return ResponseEntity.ok(pet.getAvailable() ? "Available" : "Not Available");
     }
+
+    @GetMapping("/pets/{petId}/adopters")
+    public String rankAdopters(@PathVariable UUID petId,
+                               @RequestParam(defaultValue = "false") boolean applicantsOnly,
+                               Model model,
+                               Authentication authentication,
+                               RedirectAttributes redirectAttributes) {
+        String username = authentication.getName();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Pet pet = petRepository.findById(petId)
+                .orElseThrow(() -> new RuntimeException("Pet not found"));
+
+        // Verify permission
+        Shelter userShelter = shelterRepository.findByAdminUserId(user.getId())
+                .orElseThrow(() -> new RuntimeException("No shelter found for this user"));
+
+        if (!pet.getShelter().getId().equals(userShelter.getId())) {
+            throw new RuntimeException("Unauthorized to view adopters for this pet");
+        }
+
+        if (pet.getPersonalityProfile() == null) {
+            redirectAttributes.addFlashAttribute("error", pet.getName() + " needs a personality profile before adopters can be matched.");
+            return "redirect:/shelter/pets";
+        }
+
+        model.addAttribute("shelter", userShelter);
+        model.addAttribute("pet", pet);
+        model.addAttribute("ranking", reverseMatchingService.rankAdopters(pet, applicantsOnly));
+
+        return "shelter/pet-adopters";
+    }
+
+    // One row past the page is fetched to learn whether another page follows
+    private void addApplicationPage(Model model, Shelter shelter, ApplicationFilter filter,
+                                    LocalDateTime cursor, UUID cursorId) {
+        if (cursorId == null) {
+            cursor = null;
+        }
+        Limit limit = Limit.of(APPLICATION_PAGE_SIZE + 1);
+        List<AdoptionApplication> rows = filter.isOldestFirst()
+                ? adoptionApplicationRepository.findPageOldestFirst(shelter.getId(), filter.getStatus(),
+                        filter.getPet(), filter.fromTime(), filter.toTime(), cursor, cursorId, limit)
+                : adoptionApplicationRepository.findPageNewestFirst(shelter.getId(), filter.getStatus(),
+                        filter.getPet(), filter.fromTime(), filter.toTime(), cursor, cursorId, limit);
+        boolean hasMore = rows.size() > APPLICATION_PAGE_SIZE;
+        List<AdoptionApplication> applications = hasMore ? rows.subList(0, APPLICATION_PAGE_SIZE) : rows;
+        AdoptionApplication last = hasMore ? applications.get(applications.size() - 1) : null;
+        model.addAttribute("applications", applications);
+        model.addAttribute("firstPage", cursor == null);
+        model.addAttribute("nextApplicationsPage", last != null
+                ? UriComponentsBuilder.fromPath("/shelter/applications")
+                        .queryParamIfPresent("status", Optional.ofNullable(filter.getStatus()))
+                        .queryParamIfPresent("pet", Optional.ofNullable(filter.getPet()))
+                        .queryParamIfPresent("from", Optional.ofNullable(filter.getFrom()))
+                        .queryParamIfPresent("to", Optional.ofNullable(filter.getTo()))
+                        .queryParam("oldestFirst", filter.isOldestFirst())
+                        .queryParam("cursor", last.getApplicationDate())
+                        .queryParam("cursorId", last.getId())
+                        .encode().toUriString()
+                : null);
+    }
+
+    // One grouped query instead of loading each pet's applications as its row renders
+    private void assignPendingApplicationCounts(Shelter shelter, List<Pet> pets) {
+        Map<UUID, Long> pendingCounts = adoptionApplicationRepository.findPendingApplicationCountsByShelter(shelter.getId());
+        for (Pet pet : pets) {
+            pet.setPendingApplicationsCount(pendingCounts.getOrDefault(pet.getId(), 0L).intValue());
+        }
+    }
 }
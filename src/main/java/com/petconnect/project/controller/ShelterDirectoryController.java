@@ -0,0 +1,55 @@
+package com.petconnect.project.controller;
+
+import com.petconnect.project.entity.Shelter;
+import com.petconnect.project.repository.ShelterRepository;
+import com.petconnect.project.service.TypeaheadIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Public directory of partner shelters, searchable by name, city or state.
+ */
+@Controller
+@RequestMapping("/shelters")
+@RequiredArgsConstructor
+public class ShelterDirectoryController {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final ShelterRepository shelterRepository;
+    private final TypeaheadIndex typeaheadIndex;
+
+    @GetMapping
+    public String directory(@RequestParam(required = false) String q, Model model) {
+        List<Shelter> shelters = StringUtils.hasText(q)
+                ? shelterRepository.searchShelters(q.strip())
+                : shelterRepository.findAll(Sort.by("name"));
+        model.addAttribute("shelters", shelters);
+        model.addAttribute("query", StringUtils.hasText(q) ? q : null);
+        return "shelters/directory";
+    }
+
+    /**
+     * Search box suggestions as the options of its datalist, for HTMX.
+     */
+    @GetMapping(path = "/suggestions", headers = "HX-Request")
+    public String suggestionOptions(@RequestParam(defaultValue = "") String q, Model model) {
+        model.addAttribute("suggestions", typeaheadIndex.suggestShelters(q, MAX_SUGGESTIONS));
+        return "fragments/suggestions :: suggestions";
+    }
+
+    @GetMapping("/suggestions")
+    @ResponseBody
+    public List<TypeaheadIndex.Suggestion> suggestions(@RequestParam(defaultValue = "") String q) {
+        return typeaheadIndex.suggestShelters(q, MAX_SUGGESTIONS);
+    }
+}
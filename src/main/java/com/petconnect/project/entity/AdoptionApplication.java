@@ -13,7 +13,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "adoption_applications", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"applicant_id", "pet_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"applicant_id", "pet_id"}),
+       indexes = @Index(name = "idx_applications_shelter_date", columnList = "shelter_id, application_date, id"))
 @Data
 @EqualsAndHashCode(exclude = {"applicant", "pet", "shelter"})
 @ToString(exclude = {"applicant", "pet", "shelter"})
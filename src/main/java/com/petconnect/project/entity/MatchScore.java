@@ -0,0 +1,50 @@
+package com.petconnect.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One precomputed rank of a user's nightly match list. Rows are written in
+ * bulk by the match score batch job rather than through JPA.
+ */
+@Entity
+@Table(name = "match_scores")
+@IdClass(MatchScore.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchScore {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Id
+    @Column(name = "rank_position", nullable = false)
+    private Integer rankPosition;
+
+    @Column(name = "pet_id", nullable = false)
+    private UUID petId;
+
+    @Column(name = "score_cents", nullable = false)
+    private Integer scoreCents;
+
+    @Column(name = "reasons", nullable = false)
+    private Integer reasons;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private Integer rankPosition;
+    }
+}
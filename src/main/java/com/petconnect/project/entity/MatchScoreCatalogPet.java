@@ -0,0 +1,70 @@
+package com.petconnect.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One pet of the catalogue a match score batch run scored against, with the
+ * columns matchmaking reads. Kept so precomputed rankings can be brought up to
+ * date with the pets that changed since, even after a restart. Rows are written
+ * in bulk by the match score batch job rather than through JPA.
+ */
+@Entity
+@Table(name = "match_score_catalog_pets")
+@IdClass(MatchScoreCatalogPet.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchScoreCatalogPet {
+
+    @Id
+    @Column(name = "catalog_id", nullable = false)
+    private UUID catalogId;
+
+    @Id
+    @Column(name = "pet_id", nullable = false)
+    private UUID petId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PetSize size;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "age_group", nullable = false, length = 20)
+    private PetAgeGroup ageGroup;
+
+    @Column(name = "adoption_fee", nullable = false, precision = 10, scale = 2)
+    private BigDecimal adoptionFee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "energy_level", nullable = false, length = 20)
+    private EnergyLevel energyLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SociabilityLevel sociability;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TrainabilityLevel trainability;
+
+    @Column(name = "noise_level", nullable = false, length = 20)
+    private String noiseLevel;
+
+    @Column(name = "affection_level", nullable = false)
+    private Integer affectionLevel;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID catalogId;
+        private UUID petId;
+    }
+}
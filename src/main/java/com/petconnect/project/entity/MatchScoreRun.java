@@ -0,0 +1,40 @@
+package com.petconnect.project.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a match score batch run. The checkpoint is the last lifestyle
+ * profile id whose scores were committed, so an interrupted run resumes after it.
+ */
+@Entity
+@Table(name = "match_score_runs")
+@Data
+public class MatchScoreRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MatchScoreRunStatus status = MatchScoreRunStatus.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_profile_id", nullable = false, length = 36)
+    private String lastProfileId = "";
+
+    @Column(name = "profiles_processed", nullable = false)
+    private Long profilesProcessed = 0L;
+
+    @Column(name = "rows_written", nullable = false)
+    private Long rowsWritten = 0L;
+}
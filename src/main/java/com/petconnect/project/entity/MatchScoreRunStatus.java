@@ -0,0 +1,6 @@
+package com.petconnect.project.entity;
+
+public enum MatchScoreRunStatus {
+    RUNNING,
+    COMPLETED
+}
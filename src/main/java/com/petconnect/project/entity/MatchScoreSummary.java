@@ -0,0 +1,57 @@
+package com.petconnect.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Totals that accompany a user's precomputed match list, plus the lifestyle
+ * signature and scoring weights it was computed for so a changed profile or
+ * reweighted scoring is detected, and the {@link MatchScoreCatalogPet catalogue}
+ * it was ranked against so pets changed since can be applied to it.
+ */
+@Entity
+@Table(name = "match_score_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchScoreSummary {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "lifestyle_signature", nullable = false)
+    private Long lifestyleSignature;
+
+    @Column(name = "scoring_weights", nullable = false)
+    private Long scoringWeights;
+
+    @Column(name = "catalog_id", nullable = false)
+    private UUID catalogId;
+
+    @Column(name = "ranked_count", nullable = false)
+    private Integer rankedCount;
+
+    @Column(name = "total_matches", nullable = false)
+    private Integer totalMatches;
+
+    @Column(name = "excellent_matches", nullable = false)
+    private Integer excellentMatches;
+
+    @Column(name = "great_matches", nullable = false)
+    private Integer greatMatches;
+
+    @Column(name = "good_matches", nullable = false)
+    private Integer goodMatches;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
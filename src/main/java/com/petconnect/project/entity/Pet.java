@@ -14,10 +14,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "pets")
+@Table(name = "pets",
+       indexes = @Index(name = "idx_pets_available_created", columnList = "is_available, created_at, id"))
 @Data
-@EqualsAndHashCode(exclude = {"adoptionApplications", "communityPosts", "personalityProfile"})
-@ToString(exclude = {"adoptionApplications", "communityPosts", "personalityProfile"})
+@EqualsAndHashCode(exclude = {"adoptionApplications", "communityPosts", "personalityProfile", "pendingApplicationsCount"})
+@ToString(exclude = {"adoptionApplications", "communityPosts", "personalityProfile", "pendingApplicationsCount"})
 public class Pet {
 
     @Id
@@ -127,6 +128,10 @@ public class Pet {
     @OneToOne(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private PersonalityProfile personalityProfile;
 
+    // Assigned by listings from a batched count, so rows need not load their applications
+    @Transient
+    private Integer pendingApplicationsCount;
+
     // Helper methods
     public String getDisplayName() {
         return name + " (" + species + ")";
@@ -155,7 +160,14 @@ public class Pet {
         return specialNeeds != null && !specialNeeds.trim().isEmpty();
     }
 
+    /**
+     * The assigned pending application count when there is one; otherwise counted
+     * from the applications collection, which loads it.
+     */
     public int getPendingApplicationsCount() {
+        if (pendingApplicationsCount != null) {
+            return pendingApplicationsCount;
+        }
         return adoptionApplications != null ? 
             (int) adoptionApplications.stream()
                 .filter(app -> app.getStatus() == ApplicationStatus.PENDING)
@@ -98,12 +98,4 @@ public class Shelter {
     public String getFullAddress() {
         return address + ", " + city + ", " + state + " " + zipCode;
     }
-
-    public int getCurrentPetCount() {
-        return pets != null ? (int) pets.stream().filter(pet -> pet.getAvailable()).count() : 0;
-    }
-
-    public boolean isAtCapacity() {
-        return capacity > 0 && getCurrentPetCount() >= capacity;
-    }
 }
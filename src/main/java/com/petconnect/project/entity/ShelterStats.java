@@ -0,0 +1,55 @@
+package com.petconnect.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialised counters of one shelter, kept up to date by the writes that change
+ * them so dashboards and capacity checks read a single row. A repair job
+ * recomputes them from the pets and applications tables to correct any drift.
+ */
+@Entity
+@Table(name = "shelter_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShelterStats {
+
+    @Id
+    @Column(name = "shelter_id", nullable = false)
+    private UUID shelterId;
+
+    @Column(name = "total_pets", nullable = false)
+    private Long totalPets = 0L;
+
+    @Column(name = "available_pets", nullable = false)
+    private Long availablePets = 0L;
+
+    @Column(name = "pending_applications", nullable = false)
+    private Long pendingApplications = 0L;
+
+    @Column(name = "approved_applications", nullable = false)
+    private Long approvedApplications = 0L;
+
+    @Column(name = "rejected_applications", nullable = false)
+    private Long rejectedApplications = 0L;
+
+    @Column(name = "withdrawn_applications", nullable = false)
+    private Long withdrawnApplications = 0L;
+
+    @Column(name = "recomputed_at")
+    private LocalDateTime recomputedAt;
+
+    public long getTotalApplications() {
+        return pendingApplications + approvedApplications + rejectedApplications + withdrawnApplications;
+    }
+
+    public boolean isAtCapacity(Integer capacity) {
+        return capacity != null && capacity > 0 && availablePets >= capacity;
+    }
+}
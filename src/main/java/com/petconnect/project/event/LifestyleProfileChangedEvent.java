@@ -0,0 +1,9 @@
+package com.petconnect.project.event;
+
+import java.util.UUID;
+
+/**
+ * Published when an adopter saves or deletes their lifestyle profile.
+ */
+public record LifestyleProfileChangedEvent(UUID userId) {
+}
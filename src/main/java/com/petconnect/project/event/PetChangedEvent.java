@@ -0,0 +1,10 @@
+package com.petconnect.project.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a pet is added, edited, adopted or has its availability
+ * toggled, so in-memory views of the catalogue can refresh that single pet.
+ */
+public record PetChangedEvent(UUID petId, UUID shelterId) {
+}
@@ -2,14 +2,19 @@ package com.petconnect.project.repository;
 
 import com.petconnect.project.entity.AdoptionApplication;
 import com.petconnect.project.entity.ApplicationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Repository
 public interface AdoptionApplicationRepository extends JpaRepository<AdoptionApplication, UUID> {
@@ -26,8 +31,68 @@ public interface AdoptionApplicationRepository extends JpaRepository<AdoptionApp
 
     Optional<AdoptionApplication> findByApplicantIdAndPetId(UUID applicantId, UUID petId);
 
-    @Query("SELECT a FROM AdoptionApplication a LEFT JOIN FETCH a.applicant LEFT JOIN FETCH a.pet LEFT JOIN FETCH a.shelter WHERE a.shelter.id = :shelterId")
-    List<AdoptionApplication> findByShelterIdWithDetails(@Param("shelterId") UUID shelterId);
+    // Profiles are inverse one-to-ones, loaded per row unless fetched here
+    @Query("SELECT a FROM AdoptionApplication a JOIN FETCH a.applicant u LEFT JOIN FETCH u.lifestyleProfile " +
+           "JOIN FETCH a.pet p LEFT JOIN FETCH p.personalityProfile WHERE a.shelter.id = :shelterId " +
+           "ORDER BY a.applicationDate DESC, a.id DESC")
+    List<AdoptionApplication> findNewestByShelterIdWithDetails(@Param("shelterId") UUID shelterId, Limit limit);
+
+    /**
+     * One page of a shelter's applications, newest first, seeking past the keyset
+     * cursor of the previous page's last row; a null cursor starts at the top.
+     * Null filters are ignored and {@code to} is exclusive.
+     */
+    @Query("SELECT a FROM AdoptionApplication a JOIN FETCH a.applicant u LEFT JOIN FETCH u.lifestyleProfile " +
+           "JOIN FETCH a.pet p LEFT JOIN FETCH p.personalityProfile " +
+           "WHERE a.shelter.id = :shelterId AND (:status IS NULL OR a.status = :status) " +
+           "AND (:petId IS NULL OR a.pet.id = :petId) " +
+           "AND (:from IS NULL OR a.applicationDate >= :from) AND (:to IS NULL OR a.applicationDate < :to) " +
+           "AND (:cursor IS NULL OR a.applicationDate < :cursor " +
+           "OR (a.applicationDate = :cursor AND a.id < :cursorId)) " +
+           "ORDER BY a.applicationDate DESC, a.id DESC")
+    List<AdoptionApplication> findPageNewestFirst(@Param("shelterId") UUID shelterId,
+                                                  @Param("status") ApplicationStatus status,
+                                                  @Param("petId") UUID petId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  @Param("cursor") LocalDateTime cursor,
+                                                  @Param("cursorId") UUID cursorId,
+                                                  Limit limit);
+
+    /**
+     * Same as {@link #findPageNewestFirst}, oldest first.
+     */
+    @Query("SELECT a FROM AdoptionApplication a JOIN FETCH a.applicant u LEFT JOIN FETCH u.lifestyleProfile " +
+           "JOIN FETCH a.pet p LEFT JOIN FETCH p.personalityProfile " +
+           "WHERE a.shelter.id = :shelterId AND (:status IS NULL OR a.status = :status) " +
+           "AND (:petId IS NULL OR a.pet.id = :petId) " +
+           "AND (:from IS NULL OR a.applicationDate >= :from) AND (:to IS NULL OR a.applicationDate < :to) " +
+           "AND (:cursor IS NULL OR a.applicationDate > :cursor " +
+           "OR (a.applicationDate = :cursor AND a.id > :cursorId)) " +
+           "ORDER BY a.applicationDate ASC, a.id ASC")
+    List<AdoptionApplication> findPageOldestFirst(@Param("shelterId") UUID shelterId,
+                                                  @Param("status") ApplicationStatus status,
+                                                  @Param("petId") UUID petId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  @Param("cursor") LocalDateTime cursor,
+                                                  @Param("cursorId") UUID cursorId,
+                                                  Limit limit);
+
+    /**
+     * The given applications that belong to the shelter, in one statement; ids of
+     * other shelters' applications or unknown ids are simply absent.
+     */
+    @Query("SELECT a FROM AdoptionApplication a JOIN FETCH a.applicant u LEFT JOIN FETCH u.lifestyleProfile " +
+           "JOIN FETCH a.pet p LEFT JOIN FETCH p.personalityProfile WHERE a.shelter.id = :shelterId AND a.id IN :ids")
+    List<AdoptionApplication> findByShelterIdAndIdInWithDetails(@Param("shelterId") UUID shelterId,
+                                                                @Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT a FROM AdoptionApplication a JOIN FETCH a.applicant u LEFT JOIN FETCH u.lifestyleProfile " +
+           "JOIN FETCH a.pet p LEFT JOIN FETCH p.personalityProfile " +
+           "WHERE a.pet.id IN :petIds AND a.status = :status")
+    List<AdoptionApplication> findByPetIdInAndStatusWithDetails(@Param("petIds") Collection<UUID> petIds,
+                                                                @Param("status") ApplicationStatus status);
 
     @Query("SELECT a FROM AdoptionApplication a LEFT JOIN FETCH a.applicant LEFT JOIN FETCH a.pet LEFT JOIN FETCH a.shelter WHERE a.applicant.id = :applicantId")
     List<AdoptionApplication> findByApplicantIdWithDetails(@Param("applicantId") UUID applicantId);
@@ -41,6 +106,19 @@ public interface AdoptionApplicationRepository extends JpaRepository<AdoptionApp
     @Query("SELECT COUNT(a) FROM AdoptionApplication a WHERE a.pet.id = :petId AND a.status = 'PENDING'")
     long countPendingApplicationsForPet(@Param("petId") UUID petId);
 
+    @Query("SELECT new com.petconnect.project.repository.PetApplicationCount(a.pet.id, COUNT(a)) " +
+           "FROM AdoptionApplication a WHERE a.shelter.id = :shelterId AND a.status = 'PENDING' GROUP BY a.pet.id")
+    List<PetApplicationCount> countPendingApplicationsByPet(@Param("shelterId") UUID shelterId);
+
+    /**
+     * Pending application counts of all a shelter's pets in one statement, keyed by
+     * pet id; pets without pending applications are absent.
+     */
+    default Map<UUID, Long> findPendingApplicationCountsByShelter(UUID shelterId) {
+        return countPendingApplicationsByPet(shelterId).stream()
+                .collect(Collectors.toMap(PetApplicationCount::petId, PetApplicationCount::count));
+    }
+
     boolean existsByApplicantIdAndPetId(UUID applicantId, UUID petId);
 }
 
@@ -0,0 +1,25 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Scalar projection of the lifestyle columns used by matchmaking, so adopter
+ * profiles can be streamed for reverse matching without hydrating entities.
+ */
+public record LifestyleFeatureRow(String id,
+                                  UUID userId,
+                                  String livingSituation,
+                                  String yardSize,
+                                  EnergyLevel activityLevel,
+                                  String experienceLevel,
+                                  Boolean hasChildren,
+                                  Boolean hasOtherPets,
+                                  PetSize preferredPetSize,
+                                  PetAgeGroup preferredPetAge,
+                                  BigDecimal maxAdoptionFee) {
+}
@@ -1,9 +1,13 @@
 package com.petconnect.project.repository;
 
 import com.petconnect.project.entity.LifestyleProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +19,28 @@ public interface LifestyleProfileRepository extends JpaRepository<LifestyleProfi
     boolean existsByUserId(UUID userId);
 
     void deleteByUserId(UUID userId);
+
+    /**
+     * Keyset-paged scan of lifestyle features ordered by profile id; pass an empty
+     * string to start and the last id of the previous chunk to continue.
+     */
+    @Query("SELECT new com.petconnect.project.repository.LifestyleFeatureRow(lp.id, lp.user.id, " +
+           "lp.livingSituation, lp.yardSize, lp.activityLevel, lp.experienceLevel, lp.hasChildren, " +
+           "lp.hasOtherPets, lp.preferredPetSize, lp.preferredPetAge, lp.maxAdoptionFee) " +
+           "FROM LifestyleProfile lp WHERE lp.id > :afterId ORDER BY lp.id")
+    List<LifestyleFeatureRow> findFeatureChunk(@Param("afterId") String afterId, Pageable pageable);
+
+    /**
+     * Same as {@link #findFeatureChunk} but limited to users who applied for the pet.
+     */
+    @Query("SELECT new com.petconnect.project.repository.LifestyleFeatureRow(lp.id, lp.user.id, " +
+           "lp.livingSituation, lp.yardSize, lp.activityLevel, lp.experienceLevel, lp.hasChildren, " +
+           "lp.hasOtherPets, lp.preferredPetSize, lp.preferredPetAge, lp.maxAdoptionFee) " +
+           "FROM LifestyleProfile lp WHERE lp.id > :afterId AND lp.user.id IN " +
+           "(SELECT a.applicant.id FROM AdoptionApplication a WHERE a.pet.id = :petId) ORDER BY lp.id")
+    List<LifestyleFeatureRow> findApplicantFeatureChunk(@Param("petId") UUID petId,
+                                                        @Param("afterId") String afterId,
+                                                        Pageable pageable);
 }
 
 
@@ -0,0 +1,19 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.MatchScoreCatalogPet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MatchScoreCatalogPetRepository extends JpaRepository<MatchScoreCatalogPet, MatchScoreCatalogPet.Key> {
+
+    @Query("SELECT new com.petconnect.project.repository.PetFeatureRow(c.petId, c.size, c.ageGroup, c.adoptionFee, " +
+           "c.energyLevel, c.sociability, c.trainability, c.noiseLevel, c.affectionLevel) " +
+           "FROM MatchScoreCatalogPet c WHERE c.catalogId = :catalogId")
+    List<PetFeatureRow> findFeaturesByCatalogId(@Param("catalogId") UUID catalogId);
+}
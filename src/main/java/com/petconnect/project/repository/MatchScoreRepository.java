@@ -0,0 +1,14 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.MatchScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MatchScoreRepository extends JpaRepository<MatchScore, MatchScore.Key> {
+
+    List<MatchScore> findByUserIdOrderByRankPosition(UUID userId);
+}
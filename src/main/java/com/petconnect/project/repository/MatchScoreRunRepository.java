@@ -0,0 +1,15 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.MatchScoreRun;
+import com.petconnect.project.entity.MatchScoreRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MatchScoreRunRepository extends JpaRepository<MatchScoreRun, UUID> {
+
+    Optional<MatchScoreRun> findFirstByStatusOrderByStartedAtDesc(MatchScoreRunStatus status);
+}
@@ -0,0 +1,11 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.MatchScoreSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface MatchScoreSummaryRepository extends JpaRepository<MatchScoreSummary, UUID> {
+}
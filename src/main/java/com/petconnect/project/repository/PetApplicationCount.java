@@ -0,0 +1,9 @@
+package com.petconnect.project.repository;
+
+import java.util.UUID;
+
+/**
+ * Number of applications for one pet, as grouped by an aggregate query.
+ */
+public record PetApplicationCount(UUID petId, long count) {
+}
@@ -0,0 +1,20 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.PetSize;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the columns shown on a browse card, so browsing never loads a
+ * pet's text columns or associations. {@code createdAt} and {@code id} double as
+ * the keyset cursor for the next page.
+ */
+public record PetCard(UUID id,
+                      String name,
+                      String species,
+                      String breed,
+                      Integer age,
+                      PetSize size,
+                      LocalDateTime createdAt) {
+}
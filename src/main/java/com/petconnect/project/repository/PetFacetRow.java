@@ -0,0 +1,25 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the columns pets are filtered by on the browse page, and the
+ * creation time they are listed by, so the facet index can be loaded without
+ * hydrating entities.
+ */
+public record PetFacetRow(UUID id,
+                          String species,
+                          PetSize size,
+                          PetAgeGroup ageGroup,
+                          BigDecimal adoptionFee,
+                          Boolean goodWithKids,
+                          Boolean goodWithDogs,
+                          Boolean goodWithCats,
+                          Boolean houseTrained,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,34 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.PersonalityProfile;
+import com.petconnect.project.entity.Pet;
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.entity.SociabilityLevel;
+import com.petconnect.project.entity.TrainabilityLevel;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Scalar projection of the pet and personality columns used by matchmaking,
+ * so the match index can be loaded without hydrating entities.
+ */
+public record PetFeatureRow(UUID id,
+                            PetSize size,
+                            PetAgeGroup ageGroup,
+                            BigDecimal adoptionFee,
+                            EnergyLevel energyLevel,
+                            SociabilityLevel sociability,
+                            TrainabilityLevel trainability,
+                            String noiseLevel,
+                            Integer affectionLevel) {
+
+    public static PetFeatureRow from(Pet pet) {
+        PersonalityProfile personality = pet.getPersonalityProfile();
+        return new PetFeatureRow(pet.getId(), pet.getSize(), pet.getAgeGroup(), pet.getAdoptionFee(),
+                personality.getEnergyLevel(), personality.getSociability(), personality.getTrainability(),
+                personality.getNoiseLevel(), personality.getAffectionLevel());
+    }
+}
@@ -0,0 +1,9 @@
+package com.petconnect.project.repository;
+
+import java.util.UUID;
+
+/**
+ * Id and name of a pet, enough to offer it in a select without hydrating entities.
+ */
+public record PetOption(UUID id, String name) {
+}
@@ -3,12 +3,15 @@ package com.petconnect.project.repository;
 import com.petconnect.project.entity.Pet;
 import com.petconnect.project.entity.PetAgeGroup;
 import com.petconnect.project.entity.PetSize;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,40 +35,68 @@ public interface PetRepository extends JpaRepository<Pet, UUID> {
     @Query("SELECT p FROM Pet p LEFT JOIN FETCH p.personalityProfile WHERE p.available = true AND p.personalityProfile IS NOT NULL")
     List<Pet> findAvailablePetsWithPersonalityProfiles();
 
+    @Query("SELECT new com.petconnect.project.repository.PetFeatureRow(p.id, p.size, p.ageGroup, p.adoptionFee, " +
+           "pp.energyLevel, pp.sociability, pp.trainability, pp.noiseLevel, pp.affectionLevel) " +
+           "FROM Pet p JOIN p.personalityProfile pp WHERE p.available = true")
+    List<PetFeatureRow> findAvailablePetFeatures();
+
+    @Query("SELECT new com.petconnect.project.repository.PetFeatureRow(p.id, p.size, p.ageGroup, p.adoptionFee, " +
+           "pp.energyLevel, pp.sociability, pp.trainability, pp.noiseLevel, pp.affectionLevel) " +
+           "FROM Pet p JOIN p.personalityProfile pp WHERE p.available = true AND p.id = :id")
+    Optional<PetFeatureRow> findAvailablePetFeaturesById(@Param("id") UUID id);
+
     @Query("SELECT p FROM Pet p LEFT JOIN FETCH p.shelter LEFT JOIN FETCH p.personalityProfile WHERE p.id = :id")
     Optional<Pet> findByIdWithDetails(@Param("id") UUID id);
 
-    @Query("SELECT p FROM Pet p WHERE p.shelter.id = :shelterId")
+    @Query("SELECT p FROM Pet p LEFT JOIN FETCH p.shelter LEFT JOIN FETCH p.personalityProfile WHERE p.id IN :ids")
+    List<Pet> findAllWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.petconnect.project.repository.PetCard(p.id, p.name, p.species, p.breed, p.age, p.size, " +
+           "p.createdAt) FROM Pet p WHERE p.available = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<PetCard> findNewestAvailablePetCards(Limit limit);
+
+    @Query("SELECT new com.petconnect.project.repository.PetCard(p.id, p.name, p.species, p.breed, p.age, p.size, " +
+           "p.createdAt) FROM Pet p WHERE p.available = true AND " +
+           "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PetCard> findAvailablePetCardsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                              Limit limit);
+
+    // The profile is the inverse side of a one-to-one and is loaded per pet unless fetched here
+    @Query("SELECT p FROM Pet p LEFT JOIN FETCH p.personalityProfile WHERE p.shelter.id = :shelterId")
     List<Pet> findByShelter(@Param("shelterId") UUID shelterId);
 
-    @Query("SELECT p FROM Pet p WHERE p.available = true AND " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.species) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.breed) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<Pet> searchAvailablePets(@Param("search") String search);
-
-    @Query("SELECT p FROM Pet p WHERE p.available = true AND " +
-           "(:species IS NULL OR LOWER(p.species) = LOWER(:species)) AND " +
-           "(:size IS NULL OR p.size = :size) AND " +
-           "(:ageGroup IS NULL OR p.ageGroup = :ageGroup) AND " +
-           "(:maxFee IS NULL OR p.adoptionFee <= :maxFee)")
-    List<Pet> findAvailablePetsWithFilters(
-            @Param("species") String species,
-            @Param("size") PetSize size,
-            @Param("ageGroup") PetAgeGroup ageGroup,
-            @Param("maxFee") BigDecimal maxFee
-    );
+    @Query("SELECT p FROM Pet p LEFT JOIN FETCH p.personalityProfile WHERE p.shelter.id = :shelterId " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Pet> findNewestByShelter(@Param("shelterId") UUID shelterId, Limit limit);
 
-    @Query("SELECT COUNT(p) FROM Pet p WHERE p.shelter.id = :shelterId AND p.available = true")
-    long countAvailablePetsByShelter(@Param("shelterId") UUID shelterId);
+    @Query("SELECT new com.petconnect.project.repository.PetOption(p.id, p.name) FROM Pet p " +
+           "WHERE p.shelter.id = :shelterId ORDER BY p.name, p.id")
+    List<PetOption> findPetOptionsByShelter(@Param("shelterId") UUID shelterId);
+
+    @Query("SELECT new com.petconnect.project.repository.PetSearchRow(p.id, p.name, p.species, p.breed, p.color) " +
+           "FROM Pet p WHERE p.available = true")
+    List<PetSearchRow> findAvailablePetSearchRows();
+
+    @Query("SELECT new com.petconnect.project.repository.PetSearchRow(p.id, p.name, p.species, p.breed, p.color) " +
+           "FROM Pet p WHERE p.available = true AND p.id = :id")
+    Optional<PetSearchRow> findAvailablePetSearchRowById(@Param("id") UUID id);
 
-    @Query("SELECT p FROM Pet p WHERE p.goodWithKids = true AND p.available = true")
-    List<Pet> findKidFriendlyPets();
+    @Query("SELECT new com.petconnect.project.repository.PetFacetRow(p.id, p.species, p.size, p.ageGroup, " +
+           "p.adoptionFee, p.goodWithKids, p.goodWithDogs, p.goodWithCats, p.houseTrained, p.createdAt) " +
+           "FROM Pet p WHERE p.available = true ORDER BY p.createdAt, p.id")
+    List<PetFacetRow> findAvailablePetFacetRows();
 
-    @Query("SELECT p FROM Pet p WHERE p.goodWithDogs = true AND p.available = true")
-    List<Pet> findDogFriendlyPets();
+    @Query("SELECT new com.petconnect.project.repository.PetFacetRow(p.id, p.species, p.size, p.ageGroup, " +
+           "p.adoptionFee, p.goodWithKids, p.goodWithDogs, p.goodWithCats, p.houseTrained, p.createdAt) " +
+           "FROM Pet p WHERE p.available = true AND p.id = :id")
+    Optional<PetFacetRow> findAvailablePetFacetRowById(@Param("id") UUID id);
 
-    @Query("SELECT p FROM Pet p WHERE p.goodWithCats = true AND p.available = true")
-    List<Pet> findCatFriendlyPets();
+    @Query("SELECT new com.petconnect.project.repository.PetCard(p.id, p.name, p.species, p.breed, p.age, p.size, " +
+           "p.createdAt) FROM Pet p WHERE p.available = true AND p.id IN :ids")
+    List<PetCard> findAvailablePetCardsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT COUNT(p) FROM Pet p WHERE p.shelter.id = :shelterId AND p.available = true")
+    long countAvailablePetsByShelter(@Param("shelterId") UUID shelterId);
 }
 
@@ -0,0 +1,14 @@
+package com.petconnect.project.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of the text columns a pet can be searched by, so the search index
+ * can be loaded without hydrating entities.
+ */
+public record PetSearchRow(UUID id,
+                           String name,
+                           String species,
+                           String breed,
+                           String color) {
+}
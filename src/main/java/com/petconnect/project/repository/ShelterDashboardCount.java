@@ -0,0 +1,11 @@
+package com.petconnect.project.repository;
+
+/**
+ * One counter of the shelter dashboard: the number of the shelter's pets with a
+ * given availability, or of its applications with a given status.
+ *
+ * @param category {@code PET} or {@code APPLICATION}
+ * @param bucket   Availability as {@code true}/{@code false}, or the application status name
+ */
+public record ShelterDashboardCount(String category, String bucket, long count) {
+}
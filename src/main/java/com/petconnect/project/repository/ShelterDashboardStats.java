@@ -0,0 +1,45 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.ApplicationStatus;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters of one shelter, folded from the rows of
+ * {@link ShelterRepository#findDashboardCounts}. This is the source of truth the
+ * maintained {@link com.petconnect.project.entity.ShelterStats} row is recomputed from.
+ */
+public record ShelterDashboardStats(long totalPets,
+                                    long availablePets,
+                                    Map<ApplicationStatus, Long> applicationsByStatus) {
+
+    public static ShelterDashboardStats of(List<ShelterDashboardCount> counts) {
+        long totalPets = 0;
+        long availablePets = 0;
+        Map<ApplicationStatus, Long> applicationsByStatus = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            applicationsByStatus.put(status, 0L);
+        }
+        for (ShelterDashboardCount count : counts) {
+            if ("PET".equals(count.category())) {
+                totalPets += count.count();
+                if (Boolean.parseBoolean(count.bucket())) {
+                    availablePets += count.count();
+                }
+            } else {
+                applicationsByStatus.merge(ApplicationStatus.valueOf(count.bucket()), count.count(), Long::sum);
+            }
+        }
+        return new ShelterDashboardStats(totalPets, availablePets, applicationsByStatus);
+    }
+
+    public long totalApplications() {
+        return applicationsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long pendingApplications() {
+        return applicationsByStatus.get(ApplicationStatus.PENDING);
+    }
+}
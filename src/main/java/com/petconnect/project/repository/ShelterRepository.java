@@ -15,6 +15,8 @@ public interface ShelterRepository extends JpaRepository<Shelter, UUID> {
 
     Optional<Shelter> findByAdminUserId(UUID adminUserId);
 
+    Optional<Shelter> findByAdminUserUsername(String username);
+
     List<Shelter> findByNameContainingIgnoreCase(String name);
 
     List<Shelter> findByCityIgnoreCase(String city);
@@ -36,6 +38,27 @@ public interface ShelterRepository extends JpaRepository<Shelter, UUID> {
     @Query("SELECT COUNT(p) FROM Pet p WHERE p.shelter.id = :shelterId AND p.available = true")
     long countAvailablePets(@Param("shelterId") UUID shelterId);
 
+    @Query("SELECT new com.petconnect.project.repository.ShelterSummaryRow(s.id, s.name, s.city, s.state, COUNT(p)) " +
+           "FROM Shelter s LEFT JOIN s.pets p ON p.available = true " +
+           "GROUP BY s.id, s.name, s.city, s.state")
+    List<ShelterSummaryRow> findShelterSummaryRows();
+
+    @Query("SELECT new com.petconnect.project.repository.ShelterSummaryRow(s.id, s.name, s.city, s.state, COUNT(p)) " +
+           "FROM Shelter s LEFT JOIN s.pets p ON p.available = true WHERE s.id = :id " +
+           "GROUP BY s.id, s.name, s.city, s.state")
+    Optional<ShelterSummaryRow> findShelterSummaryRowById(@Param("id") UUID id);
+
+    /**
+     * Every dashboard counter of a shelter in one round trip: its pets grouped by
+     * availability and its applications grouped by status.
+     */
+    @Query("SELECT new com.petconnect.project.repository.ShelterDashboardCount('PET', CAST(p.available AS String), COUNT(p)) " +
+           "FROM Pet p WHERE p.shelter.id = :shelterId GROUP BY p.available " +
+           "UNION ALL " +
+           "SELECT new com.petconnect.project.repository.ShelterDashboardCount('APPLICATION', CAST(a.status AS String), COUNT(a)) " +
+           "FROM AdoptionApplication a WHERE a.shelter.id = :shelterId GROUP BY a.status")
+    List<ShelterDashboardCount> findDashboardCounts(@Param("shelterId") UUID shelterId);
+
     boolean existsByAdminUserId(UUID adminUserId);
 }
 
@@ -0,0 +1,66 @@
+package com.petconnect.project.repository;
+
+import com.petconnect.project.entity.ShelterStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ShelterStatsRepository extends JpaRepository<ShelterStats, UUID> {
+
+    /**
+     * Adds to the pet counters in place, so concurrent writers never lose an update.
+     *
+     * @return Number of rows changed; 0 when the shelter has no stats row yet
+     */
+    @Modifying
+    @Query("UPDATE ShelterStats s SET s.totalPets = s.totalPets + :total, " +
+           "s.availablePets = s.availablePets + :available WHERE s.shelterId = :shelterId")
+    int adjustPets(@Param("shelterId") UUID shelterId,
+                   @Param("total") long total,
+                   @Param("available") long available);
+
+    /**
+     * Adds to the application counters in place, so concurrent writers never lose an update.
+     *
+     * @return Number of rows changed; 0 when the shelter has no stats row yet
+     */
+    @Modifying
+    @Query("UPDATE ShelterStats s SET s.pendingApplications = s.pendingApplications + :pending, " +
+           "s.approvedApplications = s.approvedApplications + :approved, " +
+           "s.rejectedApplications = s.rejectedApplications + :rejected, " +
+           "s.withdrawnApplications = s.withdrawnApplications + :withdrawn WHERE s.shelterId = :shelterId")
+    int adjustApplications(@Param("shelterId") UUID shelterId,
+                           @Param("pending") long pending,
+                           @Param("approved") long approved,
+                           @Param("rejected") long rejected,
+                           @Param("withdrawn") long withdrawn);
+
+    /**
+     * Inserts the row as a plain insert, so a shelter that already has one fails
+     * with a duplicate key instead of having its counters overwritten.
+     */
+    @Modifying
+    @Query("INSERT INTO ShelterStats (shelterId, totalPets, availablePets, pendingApplications, " +
+           "approvedApplications, rejectedApplications, withdrawnApplications, recomputedAt) " +
+           "VALUES (:#{#stats.shelterId}, :#{#stats.totalPets}, :#{#stats.availablePets}, " +
+           ":#{#stats.pendingApplications}, :#{#stats.approvedApplications}, :#{#stats.rejectedApplications}, " +
+           ":#{#stats.withdrawnApplications}, :#{#stats.recomputedAt})")
+    int insert(@Param("stats") ShelterStats stats);
+
+    @Query("SELECT s.id FROM Shelter s WHERE NOT EXISTS " +
+           "(SELECT 1 FROM ShelterStats st WHERE st.shelterId = s.id)")
+    List<UUID> findShelterIdsWithoutStats();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ShelterStats s WHERE s.shelterId = :shelterId")
+    Optional<ShelterStats> findByIdForUpdate(@Param("shelterId") UUID shelterId);
+}
@@ -0,0 +1,14 @@
+package com.petconnect.project.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a shelter's name and location with its number of available
+ * pets, for listings that need no other shelter columns.
+ */
+public record ShelterSummaryRow(UUID id,
+                                String name,
+                                String city,
+                                String state,
+                                long availablePets) {
+}
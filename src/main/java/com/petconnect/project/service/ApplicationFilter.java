@@ -0,0 +1,37 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.ApplicationStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters of the shelter dashboard's application table, bound from request
+ * parameters. A null field leaves that column unfiltered; both dates are inclusive.
+ */
+@Data
+public class ApplicationFilter {
+    private ApplicationStatus status;
+    private UUID pet;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private boolean oldestFirst;
+
+    public LocalDateTime fromTime() {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    // Exclusive upper bound, so every application of the last day is included
+    public LocalDateTime toTime() {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+
+    public boolean isEmpty() {
+        return status == null && pet == null && from == null && to == null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.event.PetChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the pet catalogue as the browse pages see it, bumped whenever a pet
+ * changes, for use as an HTTP validator.
+ *
+ * The version is bumped last, after the indexes the browse pages read have applied
+ * the change, and handlers read the validator once before building the page. A page
+ * built while a change is being applied may therefore already show it under the old
+ * validator, which only costs a client one extra render, but a page built before
+ * the change is never handed out under the new one.
+ */
+@Component
+public class CatalogVersion {
+
+    /**
+     * Order of the version bump among the pet change listeners; the indexes run before it.
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    // Versions restart with the application, so they are qualified by its start time
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    @Order(ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Weak ETag of the current catalogue.
+     */
+    public String etag() {
+        return "W/\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,174 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.LifestyleProfile;
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.repository.LifestyleFeatureRow;
+
+import java.math.BigDecimal;
+
+/**
+ * The adopter's side of a compatibility comparison, reduced to primitives once
+ * per query so the scoring loop never touches strings or {@code BigDecimal}s.
+ *
+ * Every scoring-relevant dimension is also packed into a single {@code long}
+ * lifestyle signature. Profiles with the same signature score every pet
+ * identically, so rankings are computed and cached per signature rather than per
+ * user. The maximum fee is kept exact, in cents, because the budget factor is
+ * proportional to it.
+ */
+public final class MatchCriteria {
+
+    public static final int NO_PREFERENCE = -1;
+    public static final long NO_BUDGET = -1L;
+
+    public static final int EXPERIENCE_FIRST_TIME = 0;
+    public static final int EXPERIENCE_SOME = 1;
+    public static final int EXPERIENCE_VERY = 2;
+    public static final int EXPERIENCE_UNKNOWN = -1;
+
+    private static final int FEE_BITS = 48;
+
+    private final int activityLevel;
+    private final int preferredSize;
+    private final int preferredAge;
+    private final long maxFeeCents;
+    private final boolean apartment;
+    private final boolean houseWithYard;
+    private final int experience;
+    private final boolean hasChildren;
+    private final boolean hasOtherPets;
+    private final long signature;
+
+    private MatchCriteria(int activityLevel, int preferredSize, int preferredAge, long maxFeeCents,
+                          boolean apartment, boolean houseWithYard, int experience,
+                          boolean hasChildren, boolean hasOtherPets) {
+        this.activityLevel = activityLevel;
+        this.preferredSize = preferredSize;
+        this.preferredAge = preferredAge;
+        this.maxFeeCents = maxFeeCents;
+        this.apartment = apartment;
+        this.houseWithYard = houseWithYard;
+        this.experience = experience;
+        this.hasChildren = hasChildren;
+        this.hasOtherPets = hasOtherPets;
+        this.signature = pack();
+    }
+
+    public static MatchCriteria from(LifestyleProfile lifestyle) {
+        return of(lifestyle.getLivingSituation(), lifestyle.getYardSize(), lifestyle.getActivityLevel(),
+                lifestyle.getExperienceLevel(), lifestyle.getHasChildren(), lifestyle.getHasOtherPets(),
+                lifestyle.getPreferredPetSize(), lifestyle.getPreferredPetAge(), lifestyle.getMaxAdoptionFee());
+    }
+
+    public static MatchCriteria from(LifestyleFeatureRow lifestyle) {
+        return of(lifestyle.livingSituation(), lifestyle.yardSize(), lifestyle.activityLevel(),
+                lifestyle.experienceLevel(), lifestyle.hasChildren(), lifestyle.hasOtherPets(),
+                lifestyle.preferredPetSize(), lifestyle.preferredPetAge(), lifestyle.maxAdoptionFee());
+    }
+
+    private static MatchCriteria of(String livingSituation, String yardSize, EnergyLevel activityLevel,
+                                    String experienceLevel, Boolean hasChildren, Boolean hasOtherPets,
+                                    PetSize preferredPetSize, PetAgeGroup preferredPetAge, BigDecimal maxAdoptionFee) {
+        String living = livingSituation != null ? livingSituation.toLowerCase() : "";
+        String yard = yardSize != null ? yardSize.toLowerCase() : "none";
+
+        return new MatchCriteria(
+                activityLevel.ordinal(),
+                preferredPetSize != null ? preferredPetSize.ordinal() : NO_PREFERENCE,
+                preferredPetAge != null ? preferredPetAge.ordinal() : NO_PREFERENCE,
+                maxAdoptionFee != null ? PetMatchIndex.toCents(maxAdoptionFee) : NO_BUDGET,
+                living.contains("apartment"),
+                living.contains("house") && !"none".equals(yard),
+                experienceCode(experienceLevel),
+                Boolean.TRUE.equals(hasChildren),
+                Boolean.TRUE.equals(hasOtherPets));
+    }
+
+    private static int experienceCode(String experienceLevel) {
+        if (experienceLevel == null) {
+            return EXPERIENCE_UNKNOWN;
+        }
+        return switch (experienceLevel.toLowerCase()) {
+            case "first_time" -> EXPERIENCE_FIRST_TIME;
+            case "some_experience" -> EXPERIENCE_SOME;
+            case "very_experienced" -> EXPERIENCE_VERY;
+            default -> EXPERIENCE_UNKNOWN;
+        };
+    }
+
+    public int getActivityLevel() {
+        return activityLevel;
+    }
+
+    public int getPreferredSize() {
+        return preferredSize;
+    }
+
+    public int getPreferredAge() {
+        return preferredAge;
+    }
+
+    public long getMaxFeeCents() {
+        return maxFeeCents;
+    }
+
+    public boolean isApartment() {
+        return apartment;
+    }
+
+    public boolean isHouseWithYard() {
+        return houseWithYard;
+    }
+
+    public int getExperience() {
+        return experience;
+    }
+
+    public boolean hasChildren() {
+        return hasChildren;
+    }
+
+    public boolean hasOtherPets() {
+        return hasOtherPets;
+    }
+
+    public long getSignature() {
+        return signature;
+    }
+
+    /**
+     * Bit layout, low to high: activity (3), preferred size + 1 (3), preferred
+     * age + 1 (3), experience + 1 (2), apartment, house with yard, children,
+     * other pets (1 each), then the maximum fee in cents + 1 (48).
+     */
+    private long pack() {
+        long fee = maxFeeCents + 1;
+        if (fee < 0 || fee >= 1L << FEE_BITS) {
+            throw new IllegalArgumentException("Maximum adoption fee out of range: " + maxFeeCents);
+        }
+        return activityLevel
+                | (long) (preferredSize + 1) << 3
+                | (long) (preferredAge + 1) << 6
+                | (long) (experience + 1) << 9
+                | (apartment ? 1L : 0L) << 11
+                | (houseWithYard ? 1L : 0L) << 12
+                | (hasChildren ? 1L : 0L) << 13
+                | (hasOtherPets ? 1L : 0L) << 14
+                | fee << 15;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof MatchCriteria other && signature == other.signature;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(signature);
+    }
+}
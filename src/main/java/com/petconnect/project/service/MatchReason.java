@@ -0,0 +1,60 @@
+package com.petconnect.project.service;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Reasons a pet suits an adopter. A match carries them as a bitmask, one bit per
+ * constant, and the sentence is only rendered when a result is displayed.
+ * Declaration order is the order the sentences appear in.
+ */
+public enum MatchReason {
+    PERFECT_ENERGY("Perfect energy match!"),
+    COMPLEMENTARY_ENERGY("Energy levels complement each other well."),
+    SIZE_MATCH("Matches your size preference."),
+    FIRST_TIME_FRIENDLY("Great for first-time owners!"),
+    EXPERIENCED_CHALLENGE("Perfect challenge for experienced owners!"),
+    APARTMENT_SIZE("Ideal size for apartment living."),
+    LOVES_CHILDREN("Loves children and families!");
+
+    private static final MatchReason[] VALUES = values();
+
+    private final String description;
+
+    MatchReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isSet(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static Set<MatchReason> fromMask(int mask) {
+        Set<MatchReason> reasons = EnumSet.noneOf(MatchReason.class);
+        for (MatchReason reason : VALUES) {
+            if (reason.isSet(mask)) {
+                reasons.add(reason);
+            }
+        }
+        return reasons;
+    }
+
+    public static String describe(int mask) {
+        StringJoiner explanation = new StringJoiner(" ");
+        for (MatchReason reason : VALUES) {
+            if (reason.isSet(mask)) {
+                explanation.add(reason.description);
+            }
+        }
+        return explanation.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.petconnect.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petconnect.project.config.MatchingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of ranked matches keyed by lifestyle signature, so every adopter
+ * whose profile reduces to the same {@link MatchCriteria} shares one ranking.
+ * Hit, miss and eviction counts are published under the {@code matchResults}
+ * cache name.
+ *
+ * Cached rankings always match the current {@link PetMatchIndex} snapshot: pet
+ * changes are applied to them by {@link #refreshPet}, and a ranking is only
+ * added when the snapshot it was scored against is still current. Both hold the
+ * cache's lock, so neither can slip in between an index change and its delta.
+ */
+@Component
+public class MatchResultCache {
+
+    private final Cache<Long, RankedMatches> cache;
+    private final PetMatchIndex petMatchIndex;
+
+    public MatchResultCache(MatchingProperties matchingProperties, PetMatchIndex petMatchIndex,
+                            MeterRegistry meterRegistry) {
+        this.petMatchIndex = petMatchIndex;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(matchingProperties.getCacheMaxEntries())
+                .expireAfterWrite(matchingProperties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "matchResults");
+    }
+
+    /**
+     * The cached ranking for the criteria, or null when there is none or it was
+     * scored with weights other than {@code weights}.
+     */
+    public RankedMatches get(MatchCriteria criteria, ScoringWeights weights) {
+        RankedMatches matches = cache.getIfPresent(criteria.getSignature());
+        return matches != null && matches.getPlan().getWeights().equals(weights) ? matches : null;
+    }
+
+    /**
+     * Same as {@link #get}, but only while the index is still at {@code pets}; a
+     * ranking read during a change could otherwise hold either side of it.
+     */
+    public synchronized RankedMatches getIfCurrent(MatchCriteria criteria, ScoringWeights weights,
+                                                   PetMatchIndex.Snapshot pets) {
+        return petMatchIndex.snapshot() == pets ? get(criteria, weights) : null;
+    }
+
+    /**
+     * Caches the ranking unless the index has moved on from {@code pets}, the
+     * snapshot it was scored against; a change since then was not applied to it.
+     */
+    public synchronized void putIfCurrent(RankedMatches matches, PetMatchIndex.Snapshot pets) {
+        if (petMatchIndex.snapshot() == pets) {
+            cache.put(matches.getCriteria().getSignature(), matches);
+        }
+    }
+
+    /**
+     * Refreshes the pet in the index and replaces every cached ranking with the
+     * result of the update built for that refresh, one entry at a time. Changes
+     * reach the cached rankings in the order the index applied them.
+     *
+     * @param update Builds the update for the refresh; may return null when no ranking is affected
+     */
+    public synchronized void refreshPet(UUID petId, Function<PetMatchIndex.Refresh, UnaryOperator<RankedMatches>> update) {
+        UnaryOperator<RankedMatches> change = update.apply(petMatchIndex.refresh(petId));
+        if (change == null) {
+            return;
+        }
+        for (Long key : cache.asMap().keySet()) {
+            cache.asMap().computeIfPresent(key, (k, matches) -> change.apply(matches));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
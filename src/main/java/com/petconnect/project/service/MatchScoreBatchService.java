@@ -0,0 +1,341 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.MatchScoreRun;
+import com.petconnect.project.entity.MatchScoreRunStatus;
+import com.petconnect.project.event.LifestyleProfileChangedEvent;
+import com.petconnect.project.repository.LifestyleFeatureRow;
+import com.petconnect.project.repository.LifestyleProfileRepository;
+import com.petconnect.project.repository.MatchScoreRunRepository;
+import com.petconnect.project.repository.PetFeatureRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly job that precomputes every adopter's top matches into
+ * {@code match_scores}, so the results page can skip live scoring at peak.
+ *
+ * Lifestyle profiles are streamed in keyset chunks; each distinct lifestyle
+ * signature in a chunk is ranked once, in parallel on the match scoring pool
+ * against the in-memory {@link PetMatchIndex}, shared through the {@link MatchResultCache} and written with JDBC
+ * batch statements in one transaction together with the run's checkpoint. An
+ * interrupted run therefore resumes after the last committed chunk.
+ *
+ * The index snapshot the rankings are scored against is stored first as a
+ * catalogue in {@code match_score_catalog_pets}, which every summary written
+ * against it references. Readers use it to apply the pets changed since to
+ * the stored rankings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchScoreBatchService {
+
+    private static final String DELETE_SCORES = "DELETE FROM match_scores WHERE user_id = ?";
+    private static final String INSERT_SCORE =
+            "INSERT INTO match_scores (user_id, rank_position, pet_id, score_cents, reasons, run_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SUMMARY = "DELETE FROM match_score_summaries WHERE user_id = ?";
+    private static final String INSERT_SUMMARY =
+            "INSERT INTO match_score_summaries (user_id, run_id, lifestyle_signature, scoring_weights, " +
+            "catalog_id, ranked_count, total_matches, excellent_matches, great_matches, good_matches, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CATALOG_PET =
+            "INSERT INTO match_score_catalog_pets (catalog_id, pet_id, size, age_group, adoption_fee, energy_level, " +
+            "sociability, trainability, noise_level, affection_level) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final LifestyleProfileRepository lifestyleProfileRepository;
+    private final MatchScoreRunRepository matchScoreRunRepository;
+    private final PetMatchIndex petMatchIndex;
+    private final MatchmakingService matchmakingService;
+    private final MatchResultCache matchResultCache;
+    private final PrecomputedRankings precomputedRankings;
+    private final ScoringPlanner scoringPlanner;
+    private final MatchingProperties matchingProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ForkJoinPool matchScoringPool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${petconnect.matching.batch-cron:0 0 3 * * *}")
+    public void runNightly() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Match score batch is already running; skipping this trigger");
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Match score batch failed; it will resume from its checkpoint on the next run", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Runs the job to completion, resuming the latest unfinished run if there is one.
+     */
+    public MatchScoreRun run() {
+        MatchScoreRun run = matchScoreRunRepository.findFirstByStatusOrderByStartedAtDesc(MatchScoreRunStatus.RUNNING)
+                .orElseGet(this::startRun);
+        if (!run.getLastProfileId().isEmpty()) {
+            log.info("Resuming match score run {} after profile {}", run.getId(), run.getLastProfileId());
+        }
+
+        PetMatchIndex.Snapshot pets = petMatchIndex.snapshot();
+        Pageable chunk = PageRequest.of(0, matchingProperties.getBatchChunkSize());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        UUID catalogId = UUID.randomUUID();
+        transaction.executeWithoutResult(status -> writeCatalog(catalogId, pets));
+        long started = System.nanoTime();
+        long rowsThisRun = 0;
+
+        List<LifestyleFeatureRow> profiles = lifestyleProfileRepository.findFeatureChunk(run.getLastProfileId(), chunk);
+        while (!profiles.isEmpty()) {
+            long chunkStarted = System.nanoTime();
+            List<LifestyleFeatureRow> current = profiles;
+            RankedMatches[] rankings = rankChunk(current, pets);
+            int rows = transaction.execute(status -> writeChunk(run, current, rankings, catalogId));
+            precomputedRankings.evict(current.stream().map(LifestyleFeatureRow::userId).toList());
+            rowsThisRun += rows;
+
+            long chunkNanos = System.nanoTime() - chunkStarted;
+            log.info("Match score run {}: {} profiles, {} rows ({} rows/s)", run.getId(),
+                    run.getProfilesProcessed(), run.getRowsWritten(), rowsPerSecond(rows, chunkNanos));
+
+            profiles = profiles.size() < chunk.getPageSize()
+                    ? List.of()
+                    : lifestyleProfileRepository.findFeatureChunk(run.getLastProfileId(), chunk);
+        }
+
+        transaction.executeWithoutResult(status -> finishRun(run));
+        precomputedRankings.evictAll();
+        log.info("Match score run {} completed: {} profiles, {} rows, {} rows/s", run.getId(),
+                run.getProfilesProcessed(), run.getRowsWritten(), rowsPerSecond(rowsThisRun, System.nanoTime() - started));
+        return run;
+    }
+
+    /**
+     * Drops a user's precomputed matches once their profile changes, so they fall
+     * back to live scoring until the next run.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLifestyleProfileChanged(LifestyleProfileChangedEvent event) {
+        String userId = event.userId().toString();
+        jdbcTemplate.update(DELETE_SUMMARY, userId);
+        jdbcTemplate.update(DELETE_SCORES, userId);
+        precomputedRankings.evict(List.of(event.userId()));
+    }
+
+    private MatchScoreRun startRun() {
+        MatchScoreRun run = new MatchScoreRun();
+        run.setStartedAt(LocalDateTime.now());
+        log.info("Starting match score run");
+        return matchScoreRunRepository.save(run);
+    }
+
+    /**
+     * Ranks each distinct signature in the chunk once, reusing a cached ranking
+     * when it is deep enough and still matches {@code pets}, and hands every
+     * profile the ranking for its signature. The whole chunk is scored with the
+     * same weights.
+     */
+    private RankedMatches[] rankChunk(List<LifestyleFeatureRow> profiles, PetMatchIndex.Snapshot pets) {
+        int depth = matchingProperties.getBatchTopN();
+        ScoringWeights weights = scoringPlanner.getWeights();
+        List<MatchCriteria> criteria = profiles.stream().map(MatchCriteria::from).toList();
+        List<MatchCriteria> distinct = criteria.stream().distinct().toList();
+        RankedMatches[] distinctRankings = new RankedMatches[distinct.size()];
+        // Ranked on the match scoring pool, so the batch never occupies shared threads
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(distinctRankings.length);
+        for (int i = 0; i < distinctRankings.length; i++) {
+            int index = i;
+            tasks.add(matchScoringPool.submit(() -> {
+                RankedMatches cached = matchResultCache.getIfCurrent(distinct.get(index), weights, pets);
+                if (cached != null && cached.covers(depth)) {
+                    distinctRankings[index] = cached;
+                } else {
+                    distinctRankings[index] = matchmakingService.rankMatches(
+                            ScoringPlan.compile(distinct.get(index), weights), pets, depth);
+                    matchResultCache.putIfCurrent(distinctRankings[index], pets);
+                }
+            }));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        Map<MatchCriteria, RankedMatches> bySignature = new HashMap<>();
+        for (int i = 0; i < distinctRankings.length; i++) {
+            bySignature.put(distinct.get(i), distinctRankings[i]);
+        }
+
+        RankedMatches[] rankings = new RankedMatches[profiles.size()];
+        for (int i = 0; i < rankings.length; i++) {
+            rankings[i] = bySignature.get(criteria.get(i));
+        }
+        log.debug("Ranked {} distinct lifestyle signatures for {} profiles", distinct.size(), profiles.size());
+        return rankings;
+    }
+
+    /**
+     * Stores the pets the run scores against, normalised as the index holds them.
+     */
+    private void writeCatalog(UUID catalogId, PetMatchIndex.Snapshot pets) {
+        String catalog = catalogId.toString();
+        jdbcTemplate.batchUpdate(INSERT_CATALOG_PET, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int slot) throws SQLException {
+                PetFeatureRow row = pets.row(slot);
+                ps.setString(1, catalog);
+                ps.setString(2, row.id().toString());
+                ps.setString(3, row.size().name());
+                ps.setString(4, row.ageGroup().name());
+                ps.setBigDecimal(5, row.adoptionFee());
+                ps.setString(6, row.energyLevel().name());
+                ps.setString(7, row.sociability().name());
+                ps.setString(8, row.trainability().name());
+                ps.setString(9, row.noiseLevel());
+                ps.setInt(10, row.affectionLevel());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pets.size();
+            }
+        });
+        log.info("Stored match score catalogue {} with {} pets", catalogId, pets.size());
+    }
+
+    private int writeChunk(MatchScoreRun run, List<LifestyleFeatureRow> profiles, RankedMatches[] rankings,
+                           UUID catalogId) {
+        String runId = run.getId().toString();
+        Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        // Flatten (profile, rank) pairs so each statement is one JDBC batch
+        int[] rowOffsets = new int[rankings.length + 1];
+        for (int i = 0; i < rankings.length; i++) {
+            rowOffsets[i + 1] = rowOffsets[i] + rankedCount(rankings[i]);
+        }
+        int rows = rowOffsets[rankings.length];
+
+        jdbcTemplate.batchUpdate(DELETE_SCORES, new UserBatch(profiles) {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, userId(i));
+            }
+        });
+        jdbcTemplate.batchUpdate(DELETE_SUMMARY, new UserBatch(profiles) {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, userId(i));
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_SCORE, new BatchPreparedStatementSetter() {
+            private int profile;
+
+            @Override
+            public void setValues(PreparedStatement ps, int row) throws SQLException {
+                while (row >= rowOffsets[profile + 1]) {
+                    profile++;
+                }
+                RankedMatches ranking = rankings[profile];
+                int rank = row - rowOffsets[profile];
+                ps.setString(1, profiles.get(profile).userId().toString());
+                ps.setInt(2, rank);
+                ps.setString(3, ranking.petId(rank).toString());
+                ps.setInt(4, ranking.scoreCents(rank));
+                ps.setInt(5, ranking.reasons(rank));
+                ps.setString(6, runId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows;
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_SUMMARY, new UserBatch(profiles) {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RankedMatches ranking = rankings[i];
+                ps.setString(1, userId(i));
+                ps.setString(2, runId);
+                ps.setLong(3, ranking.getCriteria().getSignature());
+                ps.setLong(4, ranking.getPlan().getWeights().fingerprint());
+                ps.setString(5, catalogId.toString());
+                ps.setInt(6, rankedCount(ranking));
+                ps.setInt(7, ranking.getTotal());
+                ps.setInt(8, ranking.getExcellentMatches());
+                ps.setInt(9, ranking.getGreatMatches());
+                ps.setInt(10, ranking.getGoodMatches());
+                ps.setTimestamp(11, computedAt);
+            }
+        });
+
+        run.setLastProfileId(profiles.get(profiles.size() - 1).id());
+        run.setProfilesProcessed(run.getProfilesProcessed() + profiles.size());
+        run.setRowsWritten(run.getRowsWritten() + rows);
+        matchScoreRunRepository.save(run);
+        return rows;
+    }
+
+    private void finishRun(MatchScoreRun run) {
+        // Users whose profile was deleted since the previous run still have its rows
+        String runId = run.getId().toString();
+        jdbcTemplate.update("DELETE FROM match_scores WHERE run_id <> ?", runId);
+        jdbcTemplate.update("DELETE FROM match_score_summaries WHERE run_id <> ?", runId);
+        jdbcTemplate.update("DELETE FROM match_score_catalog_pets WHERE catalog_id NOT IN " +
+                "(SELECT DISTINCT catalog_id FROM match_score_summaries)");
+
+        run.setStatus(MatchScoreRunStatus.COMPLETED);
+        run.setFinishedAt(LocalDateTime.now());
+        matchScoreRunRepository.save(run);
+    }
+
+    /**
+     * Rows written for one profile; a shared cached ranking may be deeper than the batch keeps.
+     */
+    private int rankedCount(RankedMatches ranking) {
+        return Math.min(ranking.size(), matchingProperties.getBatchTopN());
+    }
+
+    private static long rowsPerSecond(long rows, long nanos) {
+        return nanos > 0 ? rows * 1_000_000_000L / nanos : rows;
+    }
+
+    private abstract static class UserBatch implements BatchPreparedStatementSetter {
+        private final List<LifestyleFeatureRow> profiles;
+
+        UserBatch(List<LifestyleFeatureRow> profiles) {
+            this.profiles = profiles;
+        }
+
+        String userId(int i) {
+            return profiles.get(i).userId().toString();
+        }
+
+        @Override
+        public int getBatchSize() {
+            return profiles.size();
+        }
+    }
+}
@@ -1,285 +1,667 @@
 package com.petconnect.project.service;
 
+import com.petconnect.project.config.MatchingProperties;
 import com.petconnect.project.entity.*;
+import com.petconnect.project.event.PetChangedEvent;
+import com.petconnect.project.repository.PetFeatureRow;
 import com.petconnect.project.repository.PetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MatchmakingService {
 
+    // Pets scored per call into the scorer, so the vector kernel works on full lanes
+    private static final int SCORE_BLOCK = 1_024;
+
     private final PetRepository petRepository;
+    private final PetMatchIndex petMatchIndex;
+    private final MatchResultCache matchResultCache;
+    private final ScoringPlanner scoringPlanner;
+    private final PrecomputedRankings precomputedRankings;
+    private final MatchingProperties matchingProperties;
+    private final ForkJoinPool matchScoringPool;
+
+    private volatile boolean vectorScoring;
 
     /**
      * Finds the best pet matches for a user based on their lifestyle profile
      * and pet personality profiles. Uses a sophisticated scoring algorithm
      * that considers multiple compatibility factors.
      *
+     * Rankings are served from the {@link MatchResultCache} when possible, then
+     * from the nightly precomputed scores, and otherwise computed over the in-memory
+     * {@link PetMatchIndex}; only the pets on the requested page are loaded from
+     * the database. Scores come from a {@link ScoringPlan} compiled once for the
+     * user's lifestyle signature against the weights in force.
+     *
      * @param user The user seeking to adopt a pet
-     * @return List of pets sorted by compatibility score (highest first)
+     * @param page Zero-based page number; pages past the end are clamped to the last one
+     * @param size Number of matches per page
+     * @return The requested page, sorted by compatibility score (highest first),
+     *         together with the total and per-quality match counts
      */
-    public List<PetMatchResult> findBestMatches(User user) {
+    public MatchPage findBestMatches(User user, int page, int size) {
+        return findBestMatches(user, page, size, null);
+    }
+
+    /**
+     * Same as {@link #findBestMatches(User, int, int)}, reporting to {@code listener}
+     * while the ranking is scored live: quality counts over the pets scored so far,
+     * and each match on the requested page as soon as its rank is final. Nothing is
+     * reported when the ranking is cached or precomputed, or when the catalogue is
+     * split across the parallel pool.
+     *
+     * @param listener Receives progress on the ranking thread; may be null
+     */
+    public MatchPage findBestMatches(User user, int page, int size, MatchListener listener) {
         log.info("Finding pet matches for user: {}", user.getUsername());
-        
+
+        int pageSize = Math.max(1, Math.min(size, matchingProperties.getMaxPageSize()));
         LifestyleProfile lifestyle = user.getLifestyleProfile();
         if (lifestyle == null) {
             log.warn("User {} has no lifestyle profile", user.getUsername());
-            return new ArrayList<>();
+            return MatchPage.empty(pageSize);
         }
 
-        // Get all available pets with personality profiles
-        List<Pet> availablePets = petRepository.findAvailablePetsWithPersonalityProfiles();
-        log.info("Found {} available pets with personality profiles", availablePets.size());
-
-        List<PetMatchResult> matches = new ArrayList<>();
-
-        for (Pet pet : availablePets) {
-            if (pet.getPersonalityProfile() != null) {
-                double compatibilityScore = calculateCompatibilityScore(lifestyle, pet);
-                matches.add(new PetMatchResult(pet, compatibilityScore, generateMatchExplanation(lifestyle, pet)));
-            }
+        MatchCriteria criteria = MatchCriteria.from(lifestyle);
+        ScoringWeights weights = scoringPlanner.getWeights();
+        int requestedEnd = (int) Math.min(Integer.MAX_VALUE, (Math.max(page, 0) + 1L) * pageSize);
+        RankedMatches ranked = findReadyRanking(user.getId(), criteria, weights, requestedEnd);
+        if (ranked == null) {
+            ScoringPlan plan = ScoringPlan.compile(criteria, weights);
+            PetMatchIndex.Snapshot pets = petMatchIndex.snapshot();
+            log.info("Scoring {} available pets with personality profiles", pets.size());
+            ProgressReporter progress = listener == null ? null
+                    : new ProgressReporter(listener, plan.getCriteria(), pets, page, pageSize);
+            ranked = rankMatches(plan, pets, Math.max(matchingProperties.getCacheDepth(), requestedEnd), progress);
+            matchResultCache.putIfCurrent(ranked, pets);
         }
-
-        // Sort by compatibility score (highest first)
-        matches.sort(Comparator.comparing(PetMatchResult::getCompatibilityScore).reversed());
-        
-        log.info("Generated {} matches for user {}", matches.size(), user.getUsername());
-        return matches;
+        return toMatchPage(user, ranked, page, pageSize);
     }
 
     /**
-     * Calculates compatibility score between user lifestyle and pet personality.
-     * Score ranges from 0.0 to 100.0, with higher scores indicating better matches.
-     *
-     * Scoring factors:
-     * - Energy Level Compatibility (25 points)
-     * - Size Preference (15 points)
-     * - Age Preference (10 points)
-     * - Budget Compatibility (10 points)
-     * - Living Situation Compatibility (15 points)
-     * - Experience Level vs Trainability (15 points)
-     * - Social Compatibility (10 points)
+     * Returns the requested page when the ranking is cached or precomputed, or null
+     * when it would have to be scored live.
      */
-    private double calculateCompatibilityScore(LifestyleProfile lifestyle, Pet pet) {
-        PersonalityProfile personality = pet.getPersonalityProfile();
-        double totalScore = 0.0;
-
-        // 1. Energy Level Compatibility (25 points)
-        totalScore += calculateEnergyCompatibility(lifestyle.getActivityLevel(), personality.getEnergyLevel()) * 25;
-
-        // 2. Size Preference (15 points)
-        totalScore += calculateSizeCompatibility(lifestyle.getPreferredPetSize(), pet.getSize()) * 15;
-
-        // 3. Age Preference (10 points)
-        totalScore += calculateAgeCompatibility(lifestyle.getPreferredPetAge(), pet.getAgeGroup()) * 10;
-
-        // 4. Budget Compatibility (10 points)
-        totalScore += calculateBudgetCompatibility(lifestyle.getMaxAdoptionFee(), pet.getAdoptionFee()) * 10;
-
-        // 5. Living Situation Compatibility (15 points)
-        totalScore += calculateLivingSituationCompatibility(lifestyle, pet, personality) * 15;
-
-        // 6. Experience Level vs Trainability (15 points)
-        totalScore += calculateExperienceCompatibility(lifestyle.getExperienceLevel(), personality.getTrainability()) * 15;
-
-        // 7. Social Compatibility (10 points)
-        totalScore += calculateSocialCompatibility(lifestyle, personality) * 10;
+    public MatchPage findReadyMatches(User user, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, matchingProperties.getMaxPageSize()));
+        LifestyleProfile lifestyle = user.getLifestyleProfile();
+        if (lifestyle == null) {
+            return MatchPage.empty(pageSize);
+        }
+        int requestedEnd = (int) Math.min(Integer.MAX_VALUE, (Math.max(page, 0) + 1L) * pageSize);
+        RankedMatches ranked = findReadyRanking(user.getId(), MatchCriteria.from(lifestyle),
+                scoringPlanner.getWeights(), requestedEnd);
+        return ranked == null ? null : toMatchPage(user, ranked, page, pageSize);
+    }
 
-        log.debug("Calculated compatibility score {} for pet {} and user lifestyle", totalScore, pet.getName());
-        return Math.round(totalScore * 100.0) / 100.0; // Round to 2 decimal places
+    /**
+     * Number of pets a live ranking scores.
+     */
+    public int getIndexedPetCount() {
+        return petMatchIndex.snapshot().size();
     }
 
-    private double calculateEnergyCompatibility(EnergyLevel userActivity, EnergyLevel petEnergy) {
-        // Perfect match: same energy levels
-        if (userActivity == petEnergy) {
-            return 1.0;
+    /**
+     * Ranking from the {@link MatchResultCache}, or else from the nightly precomputed
+     * scores, deep enough for {@code requestedEnd}; null when neither has one.
+     * Precomputed rankings belong to one user and are not published to the cache,
+     * which other users with the same lifestyle signature read.
+     */
+    private RankedMatches findReadyRanking(UUID userId, MatchCriteria criteria, ScoringWeights weights,
+                                           int requestedEnd) {
+        RankedMatches ranked = matchResultCache.get(criteria, weights);
+        if (ranked != null && ranked.covers(requestedEnd)) {
+            return ranked;
         }
-
-        // Calculate distance between energy levels
-        int userLevel = getEnergyLevelValue(userActivity);
-        int petLevel = getEnergyLevelValue(petEnergy);
-        int distance = Math.abs(userLevel - petLevel);
-
-        // Score decreases with distance
-        return switch (distance) {
-            case 1 -> 0.8; // One level difference
-            case 2 -> 0.5; // Two levels difference
-            case 3 -> 0.2; // Maximum difference
-            default -> 0.0;
-        };
+        return findPrecomputedMatches(userId, criteria, weights, requestedEnd);
     }
 
-    private int getEnergyLevelValue(EnergyLevel level) {
-        return switch (level) {
-            case LOW -> 1;
-            case MODERATE -> 2;
-            case HIGH -> 3;
-            case VERY_HIGH -> 4;
-        };
+    private MatchPage toMatchPage(User user, RankedMatches ranked, int page, int pageSize) {
+        int total = ranked.getTotal();
+        int lastPage = total == 0 ? 0 : (total - 1) / pageSize;
+        int pageNumber = Math.max(0, Math.min(page, lastPage));
+        int offset = pageNumber * pageSize;
+        int end = Math.min(ranked.size(), offset + pageSize);
+
+        int count = Math.max(end - offset, 0);
+        List<UUID> petIds = new ArrayList<>(count);
+        int[] scoreCents = new int[count];
+        int[] reasons = new int[count];
+        for (int rank = offset; rank < end; rank++) {
+            petIds.add(ranked.petId(rank));
+            scoreCents[rank - offset] = ranked.scoreCents(rank);
+            reasons[rank - offset] = ranked.reasons(rank);
+        }
+        List<PetMatchResult> matches = loadMatches(petIds, scoreCents, reasons);
+
+        log.info("Generated {} of {} matches for user {}", matches.size(), total, user.getUsername());
+        return new MatchPage(matches, pageNumber, pageSize, total,
+                ranked.getExcellentMatches(), ranked.getGreatMatches(), ranked.getGoodMatches());
     }
 
-    private double calculateSizeCompatibility(PetSize preferredSize, PetSize petSize) {
-        if (preferredSize == null) {
-            return 0.8; // No preference is good but not perfect
+    /**
+     * Loads the ranked pets in one query and pairs them with their scores, in rank order.
+     */
+    private List<PetMatchResult> loadMatches(List<UUID> petIds, int[] scoreCents, int[] reasons) {
+        Map<UUID, Pet> petsById = petRepository.findAllWithDetailsByIdIn(petIds).stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity()));
+
+        List<PetMatchResult> matches = new ArrayList<>(petIds.size());
+        for (int i = 0; i < petIds.size(); i++) {
+            Pet pet = petsById.get(petIds.get(i));
+            // The pet may have been adopted since the ranking was computed
+            if (pet != null && Boolean.TRUE.equals(pet.getAvailable()) && pet.getPersonalityProfile() != null) {
+                matches.add(new PetMatchResult(pet, scoreCents[i] / 100.0, reasons[i]));
+            }
         }
-        return preferredSize == petSize ? 1.0 : 0.3;
+        return matches;
     }
 
-    private double calculateAgeCompatibility(PetAgeGroup preferredAge, PetAgeGroup petAge) {
-        if (preferredAge == null) {
-            return 0.8; // No preference is good but not perfect
-        }
-        return preferredAge == petAge ? 1.0 : 0.4;
+    /**
+     * Scores every indexed pet and keeps the best {@code depth} in a bounded heap,
+     * counting quality bands over all of them in the same pass.
+     *
+     * With bucket pruning on, only the pets that can change the result are scored;
+     * see {@link #rankBuckets}. Otherwise every pet is scored, and catalogues of at
+     * least {@code parallel-threshold} pets are split across the dedicated match
+     * scoring pool, each task keeping its own heap; the heaps are merged as tasks
+     * join. Smaller catalogues are scored on the calling thread.
+     *
+     * When the catalogue could be split, pruning gets the budget of one pool
+     * thread's share of scoring every pet. A ranking whose pruned visit would cover
+     * more than that, such as a deep ranking, is scored in full on the pool instead.
+     * At most that one share is wasted.
+     */
+    RankedMatches rankMatches(ScoringPlan plan, PetMatchIndex.Snapshot pets, int depth) {
+        return rankMatches(plan, pets, depth, null);
     }
 
-    private double calculateBudgetCompatibility(BigDecimal maxBudget, BigDecimal adoptionFee) {
-        if (maxBudget == null) {
-            return 0.9; // No budget limit specified
+    /**
+     * Same as {@link #rankMatches(ScoringPlan, PetMatchIndex.Snapshot, int)}, passing
+     * progress to {@code progress} when it is due. The parallel path reports nothing.
+     */
+    private RankedMatches rankMatches(ScoringPlan plan, PetMatchIndex.Snapshot pets, int depth,
+                                      ProgressReporter progress) {
+        int petCount = pets.size();
+        int capacity = Math.min(petCount, depth);
+
+        boolean parallel = petCount >= matchingProperties.getParallelThreshold() && matchScoringPool.getParallelism() > 1;
+        PartialRanking ranking = null;
+        if (matchingProperties.isBucketPruning()) {
+            int scoreBudget = parallel ? petCount / matchScoringPool.getParallelism() : Integer.MAX_VALUE;
+            ranking = rankBuckets(plan, pets, capacity, scoreBudget, progress);
+            if (ranking == null) {
+                log.debug("Pruned ranking exceeded {} scorings; scoring all {} pets on the pool", scoreBudget, petCount);
+            }
         }
-        
-        if (adoptionFee == null || adoptionFee.compareTo(BigDecimal.ZERO) == 0) {
-            return 1.0; // Free adoption
+        if (ranking == null && parallel) {
+            int leafSize = Math.max(SCORE_BLOCK, petCount / (matchScoringPool.getParallelism() * 4));
+            ranking = matchScoringPool.invoke(new RankTask(plan, pets, 0, petCount, capacity, leafSize));
+        } else if (ranking == null) {
+            ranking = rankRange(plan, pets, 0, petCount, capacity, progress);
         }
 
-        if (maxBudget.compareTo(adoptionFee) >= 0) {
-            // Calculate how much of budget is used (lower usage = better score)
-            double budgetUsage = adoptionFee.divide(maxBudget, 4, java.math.RoundingMode.HALF_UP).doubleValue();
-            return Math.max(0.5, 1.0 - (budgetUsage * 0.3)); // Score between 0.5 and 1.0
+        long[] keys = ranking.topMatches.toSortedArray();
+        long[] idMostSig = new long[keys.length];
+        long[] idLeastSig = new long[keys.length];
+        int[] scoreCents = new int[keys.length];
+        int[] reasons = new int[keys.length];
+        for (int rank = 0; rank < keys.length; rank++) {
+            int slot = TopKHeap.slot(keys[rank]);
+            idMostSig[rank] = pets.idMostSig(slot);
+            idLeastSig[rank] = pets.idLeastSig(slot);
+            scoreCents[rank] = TopKHeap.scoreCents(keys[rank]);
+            reasons[rank] = matchReasons(plan.getCriteria(), pets, slot);
         }
-        
-        return 0.1; // Over budget
+        return new RankedMatches(plan, idMostSig, idLeastSig, scoreCents, reasons,
+                petCount, ranking.excellentMatches, ranking.greatMatches, ranking.goodMatches);
     }
 
-    private double calculateLivingSituationCompatibility(LifestyleProfile lifestyle, Pet pet, PersonalityProfile personality) {
-        double score = 0.5; // Base score
+    /**
+     * Branch and bound over {@link PetMatchIndex.Buckets}. Pets in a bucket differ
+     * only in adoption fee, and the budget factor never rises with the fee and
+     * weights are never negative, so scores never increase along a bucket. The first pet's score is therefore the
+     * bucket's exact upper bound: buckets are visited best bound first, a bucket
+     * stops feeding the heap once its scores fall below the worst match kept, and
+     * its quality counts come from a binary search for each band's boundary. The
+     * result is identical to scoring every pet.
+     *
+     * Kept matches scoring above the next bucket's upper bound can no longer be
+     * displaced, which is what lets {@code progress} pass on final ranks early.
+     *
+     * @param scoreBudget Number of pets that may be scored; once a bucket takes the
+     *                    visit past it, the visit is abandoned and null returned
+     */
+    private PartialRanking rankBuckets(ScoringPlan plan, PetMatchIndex.Snapshot pets, int capacity,
+                                       int scoreBudget, ProgressReporter progress) {
+        PetMatchIndex.Buckets buckets = pets.buckets();
+        int bucketCount = buckets.count();
+        long[] byUpperBound = new long[bucketCount];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int upperBound = plan.scoreCents(pets, buckets.slot(buckets.start(bucket)));
+            byUpperBound[bucket] = (long) upperBound << 32 | bucket;
+        }
+        Arrays.sort(byUpperBound);
+
+        PartialRanking ranking = new PartialRanking(capacity);
+        ranking.scored = bucketCount;
+        int counted = 0;
+        for (int i = bucketCount - 1; i >= 0; i--) {
+            int bucket = (int) byUpperBound[i];
+            int upperBound = (int) (byUpperBound[i] >> 32);
+            int start = buckets.start(bucket);
+            int end = buckets.end(bucket);
+            int lowerBound = upperBound;
+            if (end - start > 1) {
+                lowerBound = plan.scoreCents(pets, buckets.slot(end - 1));
+                ranking.scored++;
+            }
 
-        String livingSituation = lifestyle.getLivingSituation().toLowerCase();
-        String yardSize = lifestyle.getYardSize() != null ? lifestyle.getYardSize().toLowerCase() : "none";
+            int excellent = countAtLeast(plan, pets, buckets, start, end, upperBound, lowerBound,
+                    RankedMatches.EXCELLENT_CENTS, ranking);
+            int great = countAtLeast(plan, pets, buckets, start, end, upperBound, lowerBound,
+                    RankedMatches.GREAT_CENTS, ranking);
+            int good = countAtLeast(plan, pets, buckets, start, end, upperBound, lowerBound,
+                    RankedMatches.GOOD_CENTS, ranking);
+            ranking.excellentMatches += excellent;
+            ranking.greatMatches += great - excellent;
+            ranking.goodMatches += good - great;
+
+            // Later buckets are still visited for their counts, but none can enter the heap
+            for (int position = start, cents = upperBound; !ranking.topMatches.excludes(cents); ) {
+                ranking.topMatches.offer(TopKHeap.key(cents, buckets.slot(position)));
+                if (++position == end) {
+                    break;
+                }
+                cents = plan.scoreCents(pets, buckets.slot(position));
+                ranking.scored++;
+            }
+            if (ranking.scored > scoreBudget) {
+                return null;
+            }
 
-        // Apartment living considerations
-        if (livingSituation.contains("apartment")) {
-            // Smaller pets and quieter pets are better for apartments
-            if (pet.getSize() == PetSize.SMALL || pet.getSize() == PetSize.MEDIUM) {
-                score += 0.3;
+            counted += end - start;
+            if (progress != null && i > 0 && progress.isDue()) {
+                progress.report(ranking, counted, (int) (byUpperBound[i - 1] >> 32));
             }
-            if ("quiet".equals(personality.getNoiseLevel())) {
-                score += 0.2;
-            } else if ("vocal".equals(personality.getNoiseLevel())) {
-                score -= 0.2;
+        }
+        return ranking;
+    }
+
+    /**
+     * Number of pets in bucket positions {@code [start, end)} scoring at least
+     * {@code threshold}, given the scores of the first and last position and
+     * relying on scores never increasing along a bucket. Pets it scores are added
+     * to {@code ranking}'s tally.
+     */
+    private int countAtLeast(ScoringPlan plan, PetMatchIndex.Snapshot pets, PetMatchIndex.Buckets buckets,
+                             int start, int end, int upperBound, int lowerBound, int threshold,
+                             PartialRanking ranking) {
+        if (upperBound < threshold) {
+            return 0;
+        }
+        if (lowerBound >= threshold) {
+            return end - start;
+        }
+        // Invariant: position low scores at least threshold, position high does not
+        int low = start;
+        int high = end - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            ranking.scored++;
+            if (plan.scoreCents(pets, buckets.slot(middle)) >= threshold) {
+                low = middle;
+            } else {
+                high = middle;
             }
         }
+        return high - start;
+    }
 
-        // House with yard considerations
-        if (livingSituation.contains("house") && !"none".equals(yardSize)) {
-            // Larger pets and more active pets benefit from yards
-            if (pet.getSize() == PetSize.LARGE || pet.getSize() == PetSize.EXTRA_LARGE) {
-                score += 0.2;
+    private PartialRanking rankRange(ScoringPlan plan, PetMatchIndex.Snapshot pets, int start, int end,
+                                     int capacity, ProgressReporter progress) {
+        PartialRanking ranking = new PartialRanking(capacity);
+        int[] cents = new int[Math.min(end - start, SCORE_BLOCK)];
+        for (int from = start; from < end; from += SCORE_BLOCK) {
+            int to = Math.min(end, from + SCORE_BLOCK);
+            scoreBlock(plan, pets, from, to, cents);
+            for (int slot = from; slot < to; slot++) {
+                int scoreCents = cents[slot - from];
+                if (scoreCents >= RankedMatches.EXCELLENT_CENTS) {
+                    ranking.excellentMatches++;
+                } else if (scoreCents >= RankedMatches.GREAT_CENTS) {
+                    ranking.greatMatches++;
+                } else if (scoreCents >= RankedMatches.GOOD_CENTS) {
+                    ranking.goodMatches++;
+                }
+                ranking.topMatches.offer(TopKHeap.key(scoreCents, slot));
             }
-            if (personality.getEnergyLevel() == EnergyLevel.HIGH || personality.getEnergyLevel() == EnergyLevel.VERY_HIGH) {
-                score += 0.3;
+            // Any later pet may still outrank every kept match
+            if (progress != null && progress.isDue()) {
+                progress.report(ranking, to - start, Integer.MAX_VALUE);
             }
         }
+        return ranking;
+    }
 
-        return Math.min(1.0, score);
+    /**
+     * The ranking written by the nightly {@link MatchScoreBatchService} run, brought
+     * up to date by re-ranking every pet that changed since the run's catalogue;
+     * null when the user has not been reached yet, their profile or the scoring
+     * weights changed since, or the ranking is not deep enough for the requested
+     * page, which pets dropping out of it can also cause.
+     */
+    private RankedMatches findPrecomputedMatches(UUID userId, MatchCriteria criteria, ScoringWeights weights,
+                                                 int requestedEnd) {
+        PrecomputedRankings.Stored stored = precomputedRankings.find(userId, ScoringPlan.compile(criteria, weights));
+        if (stored == null) {
+            return null;
+        }
+        PetMatchIndex.Snapshot pets = petMatchIndex.snapshot();
+        RankedMatches ranked = stored.currentFor(pets);
+        if (ranked == null) {
+            PetMatchIndex.Snapshot catalog = stored.catalog().pets();
+            List<PrecomputedRankings.Change> changes = stored.catalog().changesTo(pets);
+            ranked = stored.matches();
+            for (PrecomputedRankings.Change change : changes) {
+                ranked = applyPetChange(ranked, change.petId(), catalog, change.before(), pets, change.after());
+            }
+            stored.setCurrent(pets, ranked);
+            log.debug("Applied {} pet changes to the precomputed matches of user {}", changes.size(), userId);
+        }
+        return ranked.covers(requestedEnd) ? ranked : null;
     }
 
-    private double calculateExperienceCompatibility(String experienceLevel, TrainabilityLevel trainability) {
-        return switch (experienceLevel.toLowerCase()) {
-            case "first_time" -> switch (trainability) {
-                case EASY -> 1.0;
-                case MODERATE -> 0.6;
-                case CHALLENGING -> 0.2;
-                case EXPERT_ONLY -> 0.0;
-            };
-            case "some_experience" -> switch (trainability) {
-                case EASY -> 0.9;
-                case MODERATE -> 1.0;
-                case CHALLENGING -> 0.7;
-                case EXPERT_ONLY -> 0.3;
-            };
-            case "very_experienced" -> switch (trainability) {
-                case EASY -> 0.8;
-                case MODERATE -> 0.9;
-                case CHALLENGING -> 1.0;
-                case EXPERT_ONLY -> 1.0;
-            };
-            default -> 0.5;
-        };
+    /**
+     * Scores a single pet entity against a lifestyle profile using the same
+     * arithmetic as the indexed path.
+     */
+    public double calculateCompatibilityScore(LifestyleProfile lifestyle, Pet pet) {
+        PetMatchIndex.Snapshot single = PetMatchIndex.Snapshot.of(List.of(PetFeatureRow.from(pet)));
+        return ScoringPlan.scoreCents(MatchCriteria.from(lifestyle), scoringPlanner.getWeights(), single, 0) / 100.0;
     }
 
-    private double calculateSocialCompatibility(LifestyleProfile lifestyle, PersonalityProfile personality) {
-        double score = 0.5; // Base score
+    public ScoringWeights getScoringWeights() {
+        return scoringPlanner.getWeights();
+    }
 
-        // Consider children compatibility
-        if (lifestyle.getHasChildren()) {
-            // More social and affectionate pets are better with children
-            if (personality.getSociability() == SociabilityLevel.SOCIAL || 
-                personality.getSociability() == SociabilityLevel.VERY_SOCIAL) {
-                score += 0.3;
-            }
-            if (personality.getAffectionLevel() >= 4) {
-                score += 0.2;
-            }
-        }
+    /**
+     * Scores with new factor weights from now on. Cached rankings scored with the
+     * old weights are dropped, and precomputed ones are bypassed until the next
+     * batch run.
+     */
+    public void updateScoringWeights(ScoringWeights weights) {
+        ScoringWeights previous = scoringPlanner.setWeights(weights);
+        matchResultCache.invalidateAll();
+        precomputedRankings.evictAll();
+        log.info("Scoring weights changed from {} to {}", previous, weights);
+    }
 
-        // Consider other pets
-        if (lifestyle.getHasOtherPets()) {
-            // Moderate to social pets usually do better with other pets
-            if (personality.getSociability() == SociabilityLevel.MODERATE || 
-                personality.getSociability() == SociabilityLevel.SOCIAL) {
-                score += 0.3;
-            } else if (personality.getSociability() == SociabilityLevel.SHY) {
-                score -= 0.2;
+    /**
+     * Refreshes the changed pet in the index and re-ranks it within every cached
+     * ranking, scoring only that pet with each ranking's own plan.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        UUID petId = event.petId();
+        matchResultCache.refreshPet(petId, refresh -> {
+            int before = refresh.before().slotOf(petId);
+            int after = refresh.after().slotOf(petId);
+            if (before < 0 && after < 0) {
+                return null;
             }
+            return matches -> applyPetChange(matches, petId, refresh.before(), before, refresh.after(), after);
+        });
+    }
+
+    /**
+     * Re-ranks one pet within {@code matches}, scoring it in the snapshots either
+     * side of its change with the ranking's own plan.
+     *
+     * @param before The pet's slot in {@code previous}, negative when it was not indexed
+     * @param after  The pet's slot in {@code current}, negative when it is no longer indexed
+     */
+    RankedMatches applyPetChange(RankedMatches matches, UUID petId, PetMatchIndex.Snapshot previous, int before,
+                                 PetMatchIndex.Snapshot current, int after) {
+        ScoringPlan plan = matches.getPlan();
+        int oldCents = before >= 0 ? plan.scoreCents(previous, before) : RankedMatches.NOT_INDEXED;
+        int newCents = after >= 0 ? plan.scoreCents(current, after) : RankedMatches.NOT_INDEXED;
+        int reasons = after >= 0 ? matchReasons(plan.getCriteria(), current, after) : 0;
+        return matches.withPetChanged(petId, oldCents, newCents, reasons);
+    }
+
+    /**
+     * Scores slots {@code [from, to)} into {@code cents[0 .. to - from)}, with the
+     * vector kernel when {@link #selectScorer()} enabled it.
+     */
+    private void scoreBlock(ScoringPlan plan, PetMatchIndex.Snapshot pets, int from, int to, int[] cents) {
+        if (vectorScoring) {
+            VectorPetScorer.scoreCents(plan, pets, from, to, cents);
+        } else {
+            plan.scoreCents(pets, from, to, cents);
         }
+    }
 
-        return Math.min(1.0, score);
+    /**
+     * Switches ranking to the Vector API kernel when it is enabled and the incubator
+     * module is present; otherwise scoring stays scalar. VectorPetScorerTest checks
+     * that the kernel reproduces the scalar scores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void selectScorer() {
+        if (!matchingProperties.isVectorScoring()) {
+            return;
+        }
+        // Checked here because loading VectorPetScorer without the module fails
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.warn("Vector scoring is enabled but jdk.incubator.vector is not present; " +
+                    "start the JVM with --add-modules jdk.incubator.vector. Using scalar scoring");
+            return;
+        }
+        vectorScoring = true;
+        log.info("Vector scoring enabled with {} lanes", VectorPetScorer.lanes());
     }
 
-    private String generateMatchExplanation(LifestyleProfile lifestyle, Pet pet) {
-        PersonalityProfile personality = pet.getPersonalityProfile();
-        StringBuilder explanation = new StringBuilder();
+    /**
+     * Collects the reasons shown alongside a match as a {@link MatchReason} bitmask,
+     * read from the same index columns the score came from.
+     */
+    int matchReasons(MatchCriteria criteria, PetMatchIndex.Snapshot pets, int slot) {
+        int reasons = 0;
+        int petSize = pets.petSize(slot);
+        int trainability = pets.trainability(slot);
 
         // Energy compatibility
-        if (lifestyle.getActivityLevel() == personality.getEnergyLevel()) {
-            explanation.append("Perfect energy match! ");
-        } else {
-            explanation.append("Energy levels complement each other well. ");
-        }
+        reasons |= criteria.getActivityLevel() == pets.energyLevel(slot)
+                ? MatchReason.PERFECT_ENERGY.bit()
+                : MatchReason.COMPLEMENTARY_ENERGY.bit();
 
         // Size preference
-        if (lifestyle.getPreferredPetSize() != null && lifestyle.getPreferredPetSize() == pet.getSize()) {
-            explanation.append("Matches your size preference. ");
+        if (criteria.getPreferredSize() == petSize) {
+            reasons |= MatchReason.SIZE_MATCH.bit();
         }
 
         // Experience level
-        String experience = lifestyle.getExperienceLevel().toLowerCase();
-        if ("first_time".equals(experience) && personality.getTrainability() == TrainabilityLevel.EASY) {
-            explanation.append("Great for first-time owners! ");
-        } else if ("very_experienced".equals(experience) && personality.getTrainability() == TrainabilityLevel.EXPERT_ONLY) {
-            explanation.append("Perfect challenge for experienced owners! ");
+        if (criteria.getExperience() == MatchCriteria.EXPERIENCE_FIRST_TIME
+                && trainability == TrainabilityLevel.EASY.ordinal()) {
+            reasons |= MatchReason.FIRST_TIME_FRIENDLY.bit();
+        } else if (criteria.getExperience() == MatchCriteria.EXPERIENCE_VERY
+                && trainability == TrainabilityLevel.EXPERT_ONLY.ordinal()) {
+            reasons |= MatchReason.EXPERIENCED_CHALLENGE.bit();
         }
 
         // Living situation
-        String living = lifestyle.getLivingSituation().toLowerCase();
-        if (living.contains("apartment") && pet.getSize() == PetSize.SMALL) {
-            explanation.append("Ideal size for apartment living. ");
+        if (criteria.isApartment() && petSize == PetSize.SMALL.ordinal()) {
+            reasons |= MatchReason.APARTMENT_SIZE.bit();
         }
 
         // Social aspects
-        if (lifestyle.getHasChildren() && personality.getSociability() == SociabilityLevel.VERY_SOCIAL) {
-            explanation.append("Loves children and families! ");
+        if (criteria.hasChildren() && pets.sociability(slot) == SociabilityLevel.VERY_SOCIAL.ordinal()) {
+            reasons |= MatchReason.LOVES_CHILDREN.bit();
+        }
+
+        return reasons;
+    }
+
+    /**
+     * Best candidates and quality counts for one range of slots
+     */
+    private static final class PartialRanking {
+        private final TopKHeap topMatches;
+        private int excellentMatches;
+        private int greatMatches;
+        private int goodMatches;
+        // Pets scored by a pruned visit, checked against its budget
+        private long scored;
+
+        PartialRanking(int capacity) {
+            this.topMatches = new TopKHeap(capacity);
+        }
+
+        PartialRanking merge(PartialRanking other) {
+            topMatches.offerAll(other.topMatches);
+            excellentMatches += other.excellentMatches;
+            greatMatches += other.greatMatches;
+            goodMatches += other.goodMatches;
+            return this;
+        }
+    }
+
+    /**
+     * Ranks a range of slots, halving it until it is at most {@code leafSize} long
+     */
+    private final class RankTask extends RecursiveTask<PartialRanking> {
+        private final ScoringPlan plan;
+        private final PetMatchIndex.Snapshot pets;
+        private final int start;
+        private final int end;
+        private final int capacity;
+        private final int leafSize;
+
+        RankTask(ScoringPlan plan, PetMatchIndex.Snapshot pets, int start, int end, int capacity, int leafSize) {
+            this.plan = plan;
+            this.pets = pets;
+            this.start = start;
+            this.end = end;
+            this.capacity = capacity;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected PartialRanking compute() {
+            if (end - start <= leafSize) {
+                return rankRange(plan, pets, start, end, capacity, null);
+            }
+            int middle = (start + end) >>> 1;
+            RankTask left = new RankTask(plan, pets, start, middle, capacity, leafSize);
+            left.fork();
+            PartialRanking right = new RankTask(plan, pets, middle, end, capacity, leafSize).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Passes a live ranking's progress to a {@link MatchListener} at most once per
+     * {@code stream-progress-interval}, loading the pets of newly final ranks on the
+     * requested page.
+     */
+    private final class ProgressReporter {
+        private final MatchListener listener;
+        private final MatchCriteria criteria;
+        private final PetMatchIndex.Snapshot pets;
+        private final int pageEnd;
+        private final long intervalNanos;
+        private int reportedEnd;
+        private long nextReportNanos;
+
+        ProgressReporter(MatchListener listener, MatchCriteria criteria, PetMatchIndex.Snapshot pets, int page,
+                         int pageSize) {
+            this.listener = listener;
+            this.criteria = criteria;
+            this.pets = pets;
+            int total = pets.size();
+            int lastPage = total == 0 ? 0 : (total - 1) / pageSize;
+            this.reportedEnd = Math.max(0, Math.min(page, lastPage)) * pageSize;
+            this.pageEnd = Math.min(total, reportedEnd + pageSize);
+            this.intervalNanos = matchingProperties.getStreamProgressInterval().toNanos();
+            this.nextReportNanos = System.nanoTime() + intervalNanos;
+        }
+
+        boolean isDue() {
+            return System.nanoTime() - nextReportNanos >= 0;
+        }
+
+        /**
+         * Reports the counts so far and any page ranks that became final, given that
+         * kept matches scoring above {@code finalAbove} cents can no longer be displaced.
+         */
+        void report(PartialRanking ranking, int counted, int finalAbove) {
+            listener.onCounts(counted, pets.size(),
+                    ranking.excellentMatches, ranking.greatMatches, ranking.goodMatches);
+
+            long[] keys = reportedEnd < pageEnd ? ranking.topMatches.toSortedArray() : new long[0];
+            int finalEnd = reportedEnd;
+            while (finalEnd < Math.min(keys.length, pageEnd) && TopKHeap.scoreCents(keys[finalEnd]) > finalAbove) {
+                finalEnd++;
+            }
+            if (finalEnd > reportedEnd) {
+                int count = finalEnd - reportedEnd;
+                List<UUID> petIds = new ArrayList<>(count);
+                int[] scoreCents = new int[count];
+                int[] reasons = new int[count];
+                for (int rank = reportedEnd; rank < finalEnd; rank++) {
+                    int slot = TopKHeap.slot(keys[rank]);
+                    petIds.add(new UUID(pets.idMostSig(slot), pets.idLeastSig(slot)));
+                    scoreCents[rank - reportedEnd] = TopKHeap.scoreCents(keys[rank]);
+                    reasons[rank - reportedEnd] = matchReasons(criteria, pets, slot);
+                }
+                reportedEnd = finalEnd;
+                List<PetMatchResult> matches = loadMatches(petIds, scoreCents, reasons);
+                if (!matches.isEmpty()) {
+                    listener.onMatches(matches);
+                }
+            }
+            nextReportNanos = System.nanoTime() + intervalNanos;
         }
+    }
 
-        return explanation.toString().trim();
+    /**
+     * Progress of a live ranking, see {@link #findBestMatches(User, int, int, MatchListener)}.
+     * Methods are called on the ranking thread; an exception thrown from one
+     * abandons the ranking.
+     */
+    public interface MatchListener {
+
+        /**
+         * Quality counts over the first {@code scored} of {@code total} pets.
+         */
+        void onCounts(int scored, int total, int excellentMatches, int greatMatches, int goodMatches);
+
+        /**
+         * Matches on the requested page whose rank is final, best first, following
+         * those passed before.
+         */
+        void onMatches(List<PetMatchResult> matches);
     }
 
     /**
@@ -288,12 +670,13 @@ public class MatchmakingService {
     public static class PetMatchResult {
         private final Pet pet;
         private final double compatibilityScore;
-        private final String explanation;
+        private final int reasonMask;
+        private String explanation;
 
-        public PetMatchResult(Pet pet, double compatibilityScore, String explanation) {
+        public PetMatchResult(Pet pet, double compatibilityScore, int reasonMask) {
             this.pet = pet;
             this.compatibilityScore = compatibilityScore;
-            this.explanation = explanation;
+            this.reasonMask = reasonMask;
         }
 
         public Pet getPet() {
@@ -308,11 +691,34 @@ public class MatchmakingService {
             return String.format("%.0f%%", compatibilityScore);
         }
 
+        public int getReasonMask() {
+            return reasonMask;
+        }
+
+        public Set<MatchReason> getReasons() {
+            return MatchReason.fromMask(reasonMask);
+        }
+
+        /**
+         * Renders the reasons as a sentence on first use; rows that are never
+         * displayed never build a string.
+         */
         public String getExplanation() {
+            if (explanation == null) {
+                explanation = MatchReason.describe(reasonMask);
+            }
             return explanation;
         }
 
         public String getMatchQuality() {
+            return matchQuality(compatibilityScore);
+        }
+
+        public String getMatchQualityBadgeClass() {
+            return matchQualityBadgeClass(compatibilityScore);
+        }
+
+        public static String matchQuality(double compatibilityScore) {
             if (compatibilityScore >= 85) {
                 return "Excellent Match";
             } else if (compatibilityScore >= 70) {
@@ -326,7 +732,7 @@ public class MatchmakingService {
             }
         }
 
-        public String getMatchQualityBadgeClass() {
+        public static String matchQualityBadgeClass(double compatibilityScore) {
             if (compatibilityScore >= 85) {
                 return "badge-success";
             } else if (compatibilityScore >= 70) {
@@ -340,7 +746,76 @@ public class MatchmakingService {
             }
         }
     }
-}
 
+    /**
+     * One page of ranked matches plus counts over every available pet
+     */
+    public static class MatchPage {
+        private final List<PetMatchResult> matches;
+        private final int page;
+        private final int size;
+        private final int totalMatches;
+        private final int excellentMatches;
+        private final int greatMatches;
+        private final int goodMatches;
+
+        public MatchPage(List<PetMatchResult> matches, int page, int size, int totalMatches,
+                         int excellentMatches, int greatMatches, int goodMatches) {
+            this.matches = matches;
+            this.page = page;
+            this.size = size;
+            this.totalMatches = totalMatches;
+            this.excellentMatches = excellentMatches;
+            this.greatMatches = greatMatches;
+            this.goodMatches = goodMatches;
+        }
+
+        public static MatchPage empty(int size) {
+            return new MatchPage(Collections.emptyList(), 0, size, 0, 0, 0, 0);
+        }
+
+        public List<PetMatchResult> getMatches() {
+            return matches;
+        }
+
+        public int getPage() {
+            return page;
+        }
 
+        public int getSize() {
+            return size;
+        }
+
+        public int getTotalMatches() {
+            return totalMatches;
+        }
 
+        public int getTotalPages() {
+            return (totalMatches + size - 1) / size;
+        }
+
+        public int getExcellentMatches() {
+            return excellentMatches;
+        }
+
+        public int getGreatMatches() {
+            return greatMatches;
+        }
+
+        public int getGoodMatches() {
+            return goodMatches;
+        }
+
+        public boolean hasPrevious() {
+            return page > 0;
+        }
+
+        public boolean hasNext() {
+            return (long) (page + 1) * size < totalMatches;
+        }
+
+        public boolean isEmpty() {
+            return totalMatches == 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.PersonalityProfile;
+import com.petconnect.project.entity.Pet;
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.entity.Shelter;
+import com.petconnect.project.entity.SociabilityLevel;
+import com.petconnect.project.entity.TrainabilityLevel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of everything the pet detail page shows, detached from the
+ * persistence context so it can be cached and shared between requests.
+ *
+ * @param personality Null when the pet has no personality profile
+ */
+public record PetDetail(UUID id,
+                        String name,
+                        String species,
+                        String breed,
+                        Integer age,
+                        PetAgeGroup ageGroup,
+                        PetSize size,
+                        BigDecimal weight,
+                        String gender,
+                        String color,
+                        String description,
+                        String medicalHistory,
+                        String specialNeeds,
+                        boolean houseTrained,
+                        boolean goodWithKids,
+                        boolean goodWithDogs,
+                        boolean goodWithCats,
+                        BigDecimal adoptionFee,
+                        boolean available,
+                        String imageUrl,
+                        ShelterContact shelter,
+                        Personality personality,
+                        LocalDateTime updatedAt) {
+
+    /**
+     * Copies a pet loaded with its shelter and personality profile.
+     */
+    public static PetDetail of(Pet pet) {
+        Shelter shelter = pet.getShelter();
+        PersonalityProfile profile = pet.getPersonalityProfile();
+        return new PetDetail(pet.getId(), pet.getName(), pet.getSpecies(), pet.getBreed(), pet.getAge(),
+                pet.getAgeGroup(), pet.getSize(), pet.getWeight(), pet.getGender(), pet.getColor(),
+                pet.getDescription(), pet.getMedicalHistory(), pet.getSpecialNeeds(),
+                Boolean.TRUE.equals(pet.getHouseTrained()), Boolean.TRUE.equals(pet.getGoodWithKids()),
+                Boolean.TRUE.equals(pet.getGoodWithDogs()), Boolean.TRUE.equals(pet.getGoodWithCats()),
+                pet.getAdoptionFee(), Boolean.TRUE.equals(pet.getAvailable()), pet.getImageUrl(),
+                shelter == null ? null : new ShelterContact(shelter.getId(), shelter.getName(), shelter.getCity(),
+                        shelter.getState(), shelter.getPhone(), shelter.getEmail()),
+                profile == null ? null : new Personality(profile.getEnergyLevel(), profile.getSociability(),
+                        profile.getTrainability(), profile.getPlayfulnessLevel(), profile.getAffectionLevel(),
+                        profile.getExerciseNeeds(), profile.getGroomingNeeds(), profile.getNoiseLevel(),
+                        profile.getSpecialTraits()),
+                pet.getUpdatedAt());
+    }
+
+    /**
+     * Weak ETag of this snapshot; the pet's update timestamp moves with every change to it.
+     */
+    public String etag() {
+        return "W/\"pet-" + id + "-" + (updatedAt == null ? "0" : updatedAt.toString()) + "\"";
+    }
+
+    public record ShelterContact(UUID id, String name, String city, String state, String phone, String email) {
+    }
+
+    public record Personality(EnergyLevel energyLevel,
+                              SociabilityLevel sociability,
+                              TrainabilityLevel trainability,
+                              Integer playfulnessLevel,
+                              Integer affectionLevel,
+                              Integer exerciseNeeds,
+                              String groomingNeeds,
+                              String noiseLevel,
+                              String specialTraits) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.petconnect.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petconnect.project.event.PetChangedEvent;
+import com.petconnect.project.repository.PetRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of {@link PetDetail} snapshots keyed by pet id, bounded by
+ * entry count with least-recently-used style eviction. A pet's entry is dropped
+ * once a change to it commits, so the next view reads it again. Hit, miss and
+ * eviction counts and the hit ratio are published under the {@code petDetails}
+ * cache name.
+ */
+@Component
+public class PetDetailCache {
+
+    private final PetRepository petRepository;
+    private final Cache<UUID, PetDetail> cache;
+
+    public PetDetailCache(PetRepository petRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${petconnect.pets.detail-cache-max-entries:10000}") long maxEntries) {
+        this.petRepository = petRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "petDetails");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "petDetails")
+                .description("Share of lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The pet's detail snapshot, loaded with its shelter and personality profile on
+     * a miss. Unknown ids are not cached.
+     */
+    public Optional<PetDetail> get(UUID petId) {
+        return Optional.ofNullable(cache.get(petId, id -> petRepository.findByIdWithDetails(id)
+                .map(PetDetail::of)
+                .orElse(null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        cache.invalidate(event.petId());
+    }
+}
@@ -0,0 +1,529 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.event.PetChangedEvent;
+import com.petconnect.project.repository.PetFacetRow;
+import com.petconnect.project.repository.PetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over the browse page facets of every available pet: species,
+ * size, age group, fee range and the good-with and house-trained flags. Each pet
+ * owns a slot, and each facet value a bitmap with the slots of the pets that
+ * have it, so a filter is an AND of a few bitmaps and a facet count is the size
+ * of an intersection, both a word at a time.
+ *
+ * Slots follow the order the browse page lists pets in, oldest first, and pages
+ * are read from the highest slot down, so filtered pages come newest first like
+ * the unfiltered one. A new pet is appended, a changed pet has its bits reset in
+ * its slot, and the slot of a pet that is no longer available is left empty. A pet
+ * that would land out of order, such as one listed again, or empty slots
+ * outnumbering the pets, lays the slots out afresh. Reads share a lock and writes
+ * take it exclusively.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PetFacetIndex {
+
+    /**
+     * {@link #select} slot that starts at the newest pet.
+     */
+    public static final int FIRST_PAGE = Integer.MAX_VALUE;
+
+    // As the browse page lists pets, oldest first; ids compare like the database's
+    private static final Comparator<PetFacetRow> LISTING_ORDER =
+            Comparator.comparing(PetFacetRow::createdAt).thenComparing(row -> row.id().toString());
+    private static final int MIN_EMPTY_SLOTS_TO_COMPACT = 64;
+
+    private final PetRepository petRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> slotByPet = new HashMap<>();
+    private final Bitmap live = new Bitmap();
+    // Keyed by lower-cased species, in the order they were first seen
+    private final Map<String, Bitmap> bySpecies = new LinkedHashMap<>();
+    private final Map<String, String> speciesLabels = new LinkedHashMap<>();
+    private final Bitmap[] bySize = Bitmap.array(PetSize.values().length);
+    private final Bitmap[] byAgeGroup = Bitmap.array(PetAgeGroup.values().length);
+    private final Bitmap[] byFee = Bitmap.array(FeeRange.values().length);
+    private final Bitmap goodWithKids = new Bitmap();
+    private final Bitmap goodWithDogs = new Bitmap();
+    private final Bitmap goodWithCats = new Bitmap();
+    private final Bitmap houseTrained = new Bitmap();
+    private PetFacetRow[] rows = new PetFacetRow[16];
+    private int slotCount;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<PetFacetRow> loaded = petRepository.findAvailablePetFacetRows();
+        lock.writeLock().lock();
+        try {
+            layOut(loaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index loaded with {} available pets", loaded.size());
+    }
+
+    /**
+     * Re-reads the changed pet and resets its bits, or empties its slot when it is
+     * no longer available. Creation times never change, so a listed pet keeps its
+     * place.
+     */
+    @Order(CatalogVersion.ORDER - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        Optional<PetFacetRow> row = petRepository.findAvailablePetFacetRowById(event.petId());
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByPet.get(event.petId());
+            if (slot == null) {
+                row.ifPresent(this::add);
+            } else if (row.isPresent()) {
+                reset(slot, row.get());
+            } else {
+                remove(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies {@code filter} to every available pet, or only to those in
+     * {@code within} when it is not null, and counts each facet value in the same
+     * pass. A value's count is the number of pets it would leave with the other
+     * facets' selections kept, so a selected facet still shows its alternatives.
+     *
+     * @param fromSlot  Slot the page starts from, walking down to older pets:
+     *                  {@link #FIRST_PAGE} or the previous page's next slot
+     * @param pageSize  Maximum number of pets returned, newest first
+     */
+    public Selection select(PetFilter filter, Collection<UUID> within, int fromSlot, int pageSize) {
+        lock.readLock().lock();
+        try {
+            Bitmap base = live.copy();
+            if (within != null) {
+                Bitmap restricted = new Bitmap();
+                for (UUID petId : within) {
+                    Integer slot = slotByPet.get(petId);
+                    if (slot != null) {
+                        restricted.set(slot);
+                    }
+                }
+                base.and(restricted);
+            }
+
+            Map<Facet, Bitmap> selected = new EnumMap<>(Facet.class);
+            if (filter.getSpecies() != null) {
+                selected.put(Facet.SPECIES, bySpecies.getOrDefault(
+                        filter.getSpecies().toLowerCase(Locale.ROOT), new Bitmap()));
+            }
+            if (filter.getSize() != null) {
+                selected.put(Facet.SIZE, bySize[filter.getSize().ordinal()]);
+            }
+            if (filter.getAgeGroup() != null) {
+                selected.put(Facet.AGE_GROUP, byAgeGroup[filter.getAgeGroup().ordinal()]);
+            }
+            if (filter.getFee() != null) {
+                selected.put(Facet.FEE, byFee[filter.getFee().ordinal()]);
+            }
+            if (filter.isGoodWithKids()) {
+                selected.put(Facet.GOOD_WITH_KIDS, goodWithKids);
+            }
+            if (filter.isGoodWithDogs()) {
+                selected.put(Facet.GOOD_WITH_DOGS, goodWithDogs);
+            }
+            if (filter.isGoodWithCats()) {
+                selected.put(Facet.GOOD_WITH_CATS, goodWithCats);
+            }
+            if (filter.isHouseTrained()) {
+                selected.put(Facet.HOUSE_TRAINED, houseTrained);
+            }
+
+            Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                Bitmap others = base.copy();
+                selected.forEach((other, bitmap) -> {
+                    if (other != facet) {
+                        others.and(bitmap);
+                    }
+                });
+                counts.put(facet, countValues(facet, others));
+            }
+
+            Bitmap matches = base;
+            selected.values().forEach(matches::and);
+            List<UUID> petIds = new ArrayList<>(Math.min(pageSize, 64));
+            int slot = matches.previousSetBit(Math.min(fromSlot, slotCount - 1));
+            for (; slot >= 0 && petIds.size() < pageSize; slot = matches.previousSetBit(slot - 1)) {
+                petIds.add(rows[slot].id());
+            }
+            return new Selection(petIds, slot, matches.cardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Integer> countValues(Facet facet, Bitmap pets) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        switch (facet) {
+            case SPECIES -> bySpecies.forEach((key, bitmap) ->
+                    counts.put(speciesLabels.get(key), pets.andCardinality(bitmap)));
+            case SIZE -> {
+                for (PetSize size : PetSize.values()) {
+                    counts.put(size.name(), pets.andCardinality(bySize[size.ordinal()]));
+                }
+            }
+            case AGE_GROUP -> {
+                for (PetAgeGroup ageGroup : PetAgeGroup.values()) {
+                    counts.put(ageGroup.name(), pets.andCardinality(byAgeGroup[ageGroup.ordinal()]));
+                }
+            }
+            case FEE -> {
+                for (FeeRange range : FeeRange.values()) {
+                    counts.put(range.name(), pets.andCardinality(byFee[range.ordinal()]));
+                }
+            }
+            case GOOD_WITH_KIDS -> counts.put("true", pets.andCardinality(goodWithKids));
+            case GOOD_WITH_DOGS -> counts.put("true", pets.andCardinality(goodWithDogs));
+            case GOOD_WITH_CATS -> counts.put("true", pets.andCardinality(goodWithCats));
+            case HOUSE_TRAINED -> counts.put("true", pets.andCardinality(houseTrained));
+        }
+        return counts;
+    }
+
+    /**
+     * Appends the pet, or lays the slots out afresh when it is older than the
+     * newest pet listed.
+     */
+    private void add(PetFacetRow row) {
+        int newest = live.previousSetBit(slotCount - 1);
+        if (newest >= 0 && LISTING_ORDER.compare(row, rows[newest]) < 0) {
+            List<PetFacetRow> listed = listedRows();
+            listed.add(row);
+            layOut(listed);
+        } else {
+            append(row);
+        }
+    }
+
+    private void append(PetFacetRow row) {
+        int slot = slotCount++;
+        if (slot == rows.length) {
+            rows = Arrays.copyOf(rows, slot * 2);
+        }
+        rows[slot] = row;
+        slotByPet.put(row.id(), slot);
+        live.set(slot);
+        for (Bitmap bitmap : bitmapsOf(row, true)) {
+            bitmap.set(slot);
+        }
+    }
+
+    private void reset(int slot, PetFacetRow row) {
+        for (Bitmap bitmap : bitmapsOf(rows[slot], false)) {
+            bitmap.clear(slot);
+        }
+        rows[slot] = row;
+        for (Bitmap bitmap : bitmapsOf(row, true)) {
+            bitmap.set(slot);
+        }
+    }
+
+    private void remove(int slot) {
+        PetFacetRow row = rows[slot];
+        slotByPet.remove(row.id());
+        live.clear(slot);
+        for (Bitmap bitmap : bitmapsOf(row, false)) {
+            bitmap.clear(slot);
+        }
+        rows[slot] = null;
+        int empty = slotCount - slotByPet.size();
+        if (empty >= MIN_EMPTY_SLOTS_TO_COMPACT && empty > slotByPet.size()) {
+            layOut(listedRows());
+        }
+    }
+
+    /**
+     * Listed pets, oldest first.
+     */
+    private List<PetFacetRow> listedRows() {
+        List<PetFacetRow> listed = new ArrayList<>(slotByPet.size() + 1);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            listed.add(rows[slot]);
+        }
+        return listed;
+    }
+
+    /**
+     * Clears the index and gives the pets one slot each, oldest first.
+     */
+    private void layOut(List<PetFacetRow> pets) {
+        List<PetFacetRow> ordered = new ArrayList<>(pets);
+        ordered.sort(LISTING_ORDER);
+        slotByPet.clear();
+        live.clear();
+        bySpecies.clear();
+        speciesLabels.clear();
+        for (Bitmap bitmap : allFixedBitmaps()) {
+            bitmap.clear();
+        }
+        rows = new PetFacetRow[Math.max(16, ordered.size())];
+        slotCount = 0;
+        ordered.forEach(this::append);
+    }
+
+    /**
+     * Bitmaps a pet's slot is set in, creating its species bitmap when asked to.
+     */
+    private List<Bitmap> bitmapsOf(PetFacetRow row, boolean create) {
+        List<Bitmap> bitmaps = new ArrayList<>(8);
+        if (row.species() != null) {
+            String key = row.species().toLowerCase(Locale.ROOT);
+            if (create) {
+                speciesLabels.putIfAbsent(key, row.species());
+                bitmaps.add(bySpecies.computeIfAbsent(key, k -> new Bitmap()));
+            } else if (bySpecies.containsKey(key)) {
+                bitmaps.add(bySpecies.get(key));
+            }
+        }
+        if (row.size() != null) {
+            bitmaps.add(bySize[row.size().ordinal()]);
+        }
+        if (row.ageGroup() != null) {
+            bitmaps.add(byAgeGroup[row.ageGroup().ordinal()]);
+        }
+        bitmaps.add(byFee[FeeRange.of(row.adoptionFee()).ordinal()]);
+        if (Boolean.TRUE.equals(row.goodWithKids())) {
+            bitmaps.add(goodWithKids);
+        }
+        if (Boolean.TRUE.equals(row.goodWithDogs())) {
+            bitmaps.add(goodWithDogs);
+        }
+        if (Boolean.TRUE.equals(row.goodWithCats())) {
+            bitmaps.add(goodWithCats);
+        }
+        if (Boolean.TRUE.equals(row.houseTrained())) {
+            bitmaps.add(houseTrained);
+        }
+        return bitmaps;
+    }
+
+    private List<Bitmap> allFixedBitmaps() {
+        List<Bitmap> bitmaps = new ArrayList<>();
+        bitmaps.addAll(Arrays.asList(bySize));
+        bitmaps.addAll(Arrays.asList(byAgeGroup));
+        bitmaps.addAll(Arrays.asList(byFee));
+        bitmaps.addAll(List.of(goodWithKids, goodWithDogs, goodWithCats, houseTrained));
+        return bitmaps;
+    }
+
+    /**
+     * One page of a filtered selection with the facet counts that go with it.
+     *
+     * @param nextSlot Slot the next, older page starts from, or -1 on the last page
+     * @param counts   Per facet, the number of pets each value would leave, keyed
+     *                 by species, enum constant name, or "true" for a flag
+     */
+    public record Selection(List<UUID> petIds, int nextSlot, int total, Map<Facet, Map<String, Integer>> counts) {
+    }
+
+    public enum Facet {
+        SPECIES("species", "Species"),
+        SIZE("size", "Size"),
+        AGE_GROUP("ageGroup", "Age"),
+        FEE("fee", "Adoption Fee"),
+        GOOD_WITH_KIDS("goodWithKids", "Good with kids"),
+        GOOD_WITH_DOGS("goodWithDogs", "Good with dogs"),
+        GOOD_WITH_CATS("goodWithCats", "Good with cats"),
+        HOUSE_TRAINED("houseTrained", "House trained");
+
+        private final String parameter;
+        private final String label;
+
+        Facet(String parameter, String label) {
+            this.parameter = parameter;
+            this.label = label;
+        }
+
+        /**
+         * Request parameter the facet is bound from, as in {@link PetFilter}.
+         */
+        public String getParameter() {
+            return parameter;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public boolean isFlag() {
+            return ordinal() >= GOOD_WITH_KIDS.ordinal();
+        }
+    }
+
+    /**
+     * Adoption fee bands offered as a facet; the bounds are inclusive.
+     */
+    public enum FeeRange {
+        FREE("Free", BigDecimal.ZERO),
+        UP_TO_50("Up to $50", new BigDecimal("50")),
+        UP_TO_100("$50 - $100", new BigDecimal("100")),
+        UP_TO_250("$100 - $250", new BigDecimal("250")),
+        OVER_250("Over $250", null);
+
+        private final String label;
+        private final BigDecimal upperBound;
+
+        FeeRange(String label, BigDecimal upperBound) {
+            this.label = label;
+            this.upperBound = upperBound;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static FeeRange of(BigDecimal fee) {
+            for (FeeRange range : values()) {
+                if (range.upperBound == null || fee == null || fee.compareTo(range.upperBound) <= 0) {
+                    return range;
+                }
+            }
+            return OVER_250;
+        }
+    }
+
+    /**
+     * Growable bitmap over slots, one bit per slot packed 64 to a word.
+     */
+    private static final class Bitmap {
+        private long[] words = new long[0];
+
+        static Bitmap[] array(int length) {
+            Bitmap[] bitmaps = new Bitmap[length];
+            for (int i = 0; i < length; i++) {
+                bitmaps[i] = new Bitmap();
+            }
+            return bitmaps;
+        }
+
+        void set(int bit) {
+            int word = bit >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            words[word] |= 1L << bit;
+        }
+
+        void clear(int bit) {
+            int word = bit >>> 6;
+            if (word < words.length) {
+                words[word] &= ~(1L << bit);
+            }
+        }
+
+        void clear() {
+            words = new long[0];
+        }
+
+        Bitmap copy() {
+            Bitmap copy = new Bitmap();
+            copy.words = words.clone();
+            return copy;
+        }
+
+        void and(Bitmap other) {
+            int common = Math.min(words.length, other.words.length);
+            for (int i = 0; i < common; i++) {
+                words[i] &= other.words[i];
+            }
+            Arrays.fill(words, common, words.length, 0L);
+        }
+
+        int andCardinality(Bitmap other) {
+            int common = Math.min(words.length, other.words.length);
+            int cardinality = 0;
+            for (int i = 0; i < common; i++) {
+                cardinality += Long.bitCount(words[i] & other.words[i]);
+            }
+            return cardinality;
+        }
+
+        int cardinality() {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return cardinality;
+        }
+
+        int previousSetBit(int from) {
+            if (from < 0 || words.length == 0) {
+                return -1;
+            }
+            int index = from >>> 6;
+            long word;
+            if (index >= words.length) {
+                index = words.length - 1;
+                word = words[index];
+            } else {
+                word = words[index] & (-1L >>> (63 - (from & 63)));
+            }
+            while (true) {
+                if (word != 0) {
+                    return index * 64 + 63 - Long.numberOfLeadingZeros(word);
+                }
+                if (--index < 0) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        int nextSetBit(int from) {
+            int index = from >>> 6;
+            if (index >= words.length) {
+                return -1;
+            }
+            long word = words[index] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return index * 64 + Long.numberOfTrailingZeros(word);
+                }
+                if (++index == words.length) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+    }
+}
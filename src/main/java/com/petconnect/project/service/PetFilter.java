@@ -0,0 +1,31 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+/**
+ * Facet selections from the browse page sidebar, bound from request parameters.
+ * A null or false field leaves that facet unfiltered.
+ */
+@Data
+public class PetFilter {
+    private String species;
+    private PetSize size;
+    private PetAgeGroup ageGroup;
+    private PetFacetIndex.FeeRange fee;
+    private boolean goodWithKids;
+    private boolean goodWithDogs;
+    private boolean goodWithCats;
+    private boolean houseTrained;
+
+    public void setSpecies(String species) {
+        this.species = StringUtils.hasText(species) ? species.trim() : null;
+    }
+
+    public boolean isEmpty() {
+        return species == null && size == null && ageGroup == null && fee == null
+                && !goodWithKids && !goodWithDogs && !goodWithCats && !houseTrained;
+    }
+}
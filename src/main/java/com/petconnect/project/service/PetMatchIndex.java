@@ -0,0 +1,469 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.PetAgeGroup;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.entity.SociabilityLevel;
+import com.petconnect.project.entity.TrainabilityLevel;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.PetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory, column-oriented copy of every available pet that has a personality
+ * profile. Each scoring attribute lives in its own primitive array indexed by slot,
+ * so a full scoring pass never allocates and never goes back to the database.
+ *
+ * Snapshots are immutable; refreshing a pet publishes a new snapshot, so readers
+ * can keep scoring against the one they started with.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PetMatchIndex {
+
+    public static final byte NOISE_QUIET = 0;
+    public static final byte NOISE_MODERATE = 1;
+    public static final byte NOISE_VOCAL = 2;
+
+    /**
+     * Affection level from which a pet counts as affectionate with children.
+     */
+    public static final int AFFECTIONATE_LEVEL = 4;
+
+    // Bit layout of Snapshot#packedFeatures(): two bits per ordinal plus one flag
+    static final int PACKED_ENERGY_SHIFT = 0;
+    static final int PACKED_SIZE_SHIFT = 2;
+    static final int PACKED_AGE_SHIFT = 4;
+    static final int PACKED_TRAINABILITY_SHIFT = 6;
+    static final int PACKED_SOCIABILITY_SHIFT = 8;
+    static final int PACKED_NOISE_SHIFT = 10;
+    static final int PACKED_AFFECTIONATE_SHIFT = 12;
+    static final int PACKED_FIELD_MASK = 0b11;
+
+    private final PetRepository petRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    public synchronized Snapshot rebuild() {
+        Snapshot rebuilt = Snapshot.of(petRepository.findAvailablePetFeatures());
+        snapshot = rebuilt;
+        log.info("Match index loaded with {} available pets", rebuilt.size());
+        return rebuilt;
+    }
+
+    /**
+     * Re-reads a single pet and replaces, inserts or drops its slot.
+     *
+     * @return the snapshots either side of the change, so callers can tell how the pet moved
+     */
+    public synchronized Refresh refresh(UUID petId) {
+        Snapshot current = snapshot();
+        Optional<PetFeatureRow> row = petRepository.findAvailablePetFeaturesById(petId);
+        Snapshot refreshed = row.isPresent() ? current.with(row.get()) : current.without(petId);
+        snapshot = refreshed;
+        log.debug("Match index refreshed for pet {} ({} pets)", petId, refreshed.size());
+        return new Refresh(current, refreshed);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static byte noiseCode(String noiseLevel) {
+        // Scoring compares the raw column value, so this is deliberately case-sensitive
+        if ("quiet".equals(noiseLevel)) {
+            return NOISE_QUIET;
+        }
+        return "vocal".equals(noiseLevel) ? NOISE_VOCAL : NOISE_MODERATE;
+    }
+
+    static String noiseLevel(int noiseCode) {
+        if (noiseCode == NOISE_QUIET) {
+            return "quiet";
+        }
+        return noiseCode == NOISE_VOCAL ? "vocal" : "moderate";
+    }
+
+    public record Refresh(Snapshot before, Snapshot after) {
+    }
+
+    /**
+     * Immutable column set. Slots are ordered by pet id so that lookups can binary
+     * search and equal scores have a stable order.
+     */
+    public static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Columns(0).toSnapshot();
+
+        private final int size;
+        private final long[] idMostSig;
+        private final long[] idLeastSig;
+        private final byte[] energyLevel;
+        private final byte[] petSize;
+        private final byte[] ageGroup;
+        private final byte[] trainability;
+        private final byte[] sociability;
+        private final byte[] noiseLevel;
+        private final byte[] affectionLevel;
+        private final int[] feeCents;
+        private final int[] packedFeatures;
+        private volatile Buckets buckets;
+
+        private Snapshot(Columns columns) {
+            this.size = columns.count;
+            this.idMostSig = columns.idMostSig;
+            this.idLeastSig = columns.idLeastSig;
+            this.energyLevel = columns.energyLevel;
+            this.petSize = columns.petSize;
+            this.ageGroup = columns.ageGroup;
+            this.trainability = columns.trainability;
+            this.sociability = columns.sociability;
+            this.noiseLevel = columns.noiseLevel;
+            this.affectionLevel = columns.affectionLevel;
+            this.feeCents = columns.feeCents;
+            this.packedFeatures = new int[size];
+            for (int slot = 0; slot < size; slot++) {
+                packedFeatures[slot] = pack(slot);
+            }
+        }
+
+        public static Snapshot empty() {
+            return EMPTY;
+        }
+
+        public static Snapshot of(List<PetFeatureRow> rows) {
+            Columns columns = new Columns(rows.size());
+            rows.stream()
+                    .sorted(Comparator.comparing(PetFeatureRow::id, Snapshot::compareIds))
+                    .forEach(columns::add);
+            return columns.toSnapshot();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public UUID petId(int slot) {
+            return new UUID(idMostSig[slot], idLeastSig[slot]);
+        }
+
+        public long idMostSig(int slot) {
+            return idMostSig[slot];
+        }
+
+        public long idLeastSig(int slot) {
+            return idLeastSig[slot];
+        }
+
+        public int energyLevel(int slot) {
+            return energyLevel[slot];
+        }
+
+        public int petSize(int slot) {
+            return petSize[slot];
+        }
+
+        public int ageGroup(int slot) {
+            return ageGroup[slot];
+        }
+
+        public int trainability(int slot) {
+            return trainability[slot];
+        }
+
+        public int sociability(int slot) {
+            return sociability[slot];
+        }
+
+        public int noiseLevel(int slot) {
+            return noiseLevel[slot];
+        }
+
+        public int affectionLevel(int slot) {
+            return affectionLevel[slot];
+        }
+
+        public int feeCents(int slot) {
+            return feeCents[slot];
+        }
+
+        /**
+         * Every categorical attribute of each slot packed into one {@code int}, so a
+         * vectorised scorer can load a lane per pet with a single read. The arrays
+         * are shared, not copied, and must not be modified.
+         */
+        int[] packedFeatures() {
+            return packedFeatures;
+        }
+
+        int[] feeCentsColumn() {
+            return feeCents;
+        }
+
+        /**
+         * Groups the slots by their packed features, built on first use.
+         */
+        Buckets buckets() {
+            Buckets current = buckets;
+            if (current == null) {
+                current = Buckets.of(this);
+                buckets = current;
+            }
+            return current;
+        }
+
+        /**
+         * The slot's columns as a row that builds an identically scored slot; values
+         * the index does not keep, such as the noise level's spelling, are normalised.
+         */
+        public PetFeatureRow row(int slot) {
+            return new PetFeatureRow(petId(slot), PetSize.values()[petSize[slot]],
+                    PetAgeGroup.values()[ageGroup[slot]], BigDecimal.valueOf(feeCents[slot], 2),
+                    EnergyLevel.values()[energyLevel[slot]], SociabilityLevel.values()[sociability[slot]],
+                    TrainabilityLevel.values()[trainability[slot]], PetMatchIndex.noiseLevel(noiseLevel[slot]),
+                    (int) affectionLevel[slot]);
+        }
+
+        /**
+         * Whether the slot holds the same scoring columns as {@code otherSlot} of {@code other}.
+         */
+        public boolean sameFeatures(int slot, Snapshot other, int otherSlot) {
+            return packedFeatures[slot] == other.packedFeatures[otherSlot]
+                    && feeCents[slot] == other.feeCents[otherSlot]
+                    && affectionLevel[slot] == other.affectionLevel[otherSlot];
+        }
+
+        /**
+         * Returns the slot holding the pet, or a negative insertion point as in
+         * {@link java.util.Arrays#binarySearch(long[], long)}.
+         */
+        public int slotOf(UUID petId) {
+            long msb = petId.getMostSignificantBits();
+            long lsb = petId.getLeastSignificantBits();
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareIds(idMostSig[mid], idLeastSig[mid], msb, lsb);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        Snapshot with(PetFeatureRow row) {
+            int slot = slotOf(row.id());
+            int insertAt = slot >= 0 ? slot : -(slot + 1);
+            Columns columns = new Columns(slot >= 0 ? size : size + 1);
+            for (int i = 0; i < size; i++) {
+                if (i == insertAt) {
+                    columns.add(row);
+                }
+                if (i != slot) {
+                    columns.copy(this, i);
+                }
+            }
+            if (insertAt == size) {
+                columns.add(row);
+            }
+            return columns.toSnapshot();
+        }
+
+        Snapshot without(UUID petId) {
+            int slot = slotOf(petId);
+            if (slot < 0) {
+                return this;
+            }
+            Columns columns = new Columns(size - 1);
+            for (int i = 0; i < size; i++) {
+                if (i != slot) {
+                    columns.copy(this, i);
+                }
+            }
+            return columns.toSnapshot();
+        }
+
+        private int pack(int slot) {
+            return energyLevel[slot] << PACKED_ENERGY_SHIFT
+                    | petSize[slot] << PACKED_SIZE_SHIFT
+                    | ageGroup[slot] << PACKED_AGE_SHIFT
+                    | trainability[slot] << PACKED_TRAINABILITY_SHIFT
+                    | sociability[slot] << PACKED_SOCIABILITY_SHIFT
+                    | noiseLevel[slot] << PACKED_NOISE_SHIFT
+                    | (affectionLevel[slot] >= AFFECTIONATE_LEVEL ? 1 : 0) << PACKED_AFFECTIONATE_SHIFT;
+        }
+
+        public static int compareIds(UUID a, UUID b) {
+            return compareIds(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                    b.getMostSignificantBits(), b.getLeastSignificantBits());
+        }
+
+        public static int compareIds(long msbA, long lsbA, long msbB, long lsbB) {
+            int cmp = Long.compare(msbA, msbB);
+            return cmp != 0 ? cmp : Long.compare(lsbA, lsbB);
+        }
+    }
+
+    /**
+     * The slots of a snapshot grouped into buckets of identical packed features, so
+     * pets within a bucket differ only in adoption fee. Each bucket is ordered by
+     * fee and then by slot.
+     */
+    static final class Buckets {
+
+        private final int[] slots;
+        private final int[] starts;
+
+        private Buckets(int[] slots, int[] starts) {
+            this.slots = slots;
+            this.starts = starts;
+        }
+
+        static Buckets of(Snapshot snapshot) {
+            int size = snapshot.size;
+            // Sort by fee and slot first, then stably by features with a counting sort
+            long[] byFee = new long[size];
+            for (int slot = 0; slot < size; slot++) {
+                byFee[slot] = ((long) snapshot.feeCents[slot] - Integer.MIN_VALUE) << 31 | slot;
+            }
+            Arrays.sort(byFee);
+
+            int[] featureCounts = new int[(1 << (PACKED_AFFECTIONATE_SHIFT + 1)) + 1];
+            for (int slot = 0; slot < size; slot++) {
+                featureCounts[snapshot.packedFeatures[slot] + 1]++;
+            }
+            int bucketCount = 0;
+            for (int features = 1; features < featureCounts.length; features++) {
+                if (featureCounts[features] > 0) {
+                    bucketCount++;
+                }
+                featureCounts[features] += featureCounts[features - 1];
+            }
+
+            int[] slots = new int[size];
+            int[] next = Arrays.copyOf(featureCounts, featureCounts.length - 1);
+            for (long key : byFee) {
+                int slot = (int) (key & Integer.MAX_VALUE);
+                slots[next[snapshot.packedFeatures[slot]]++] = slot;
+            }
+
+            int[] starts = new int[bucketCount + 1];
+            int bucket = 0;
+            for (int features = 0; features < featureCounts.length - 1; features++) {
+                if (featureCounts[features + 1] > featureCounts[features]) {
+                    starts[bucket++] = featureCounts[features];
+                }
+            }
+            starts[bucketCount] = size;
+            return new Buckets(slots, starts);
+        }
+
+        int count() {
+            return starts.length - 1;
+        }
+
+        int start(int bucket) {
+            return starts[bucket];
+        }
+
+        int end(int bucket) {
+            return starts[bucket + 1];
+        }
+
+        int slot(int position) {
+            return slots[position];
+        }
+    }
+
+    private static final class Columns {
+        private int count;
+        private final long[] idMostSig;
+        private final long[] idLeastSig;
+        private final byte[] energyLevel;
+        private final byte[] petSize;
+        private final byte[] ageGroup;
+        private final byte[] trainability;
+        private final byte[] sociability;
+        private final byte[] noiseLevel;
+        private final byte[] affectionLevel;
+        private final int[] feeCents;
+
+        Columns(int capacity) {
+            idMostSig = new long[capacity];
+            idLeastSig = new long[capacity];
+            energyLevel = new byte[capacity];
+            petSize = new byte[capacity];
+            ageGroup = new byte[capacity];
+            trainability = new byte[capacity];
+            sociability = new byte[capacity];
+            noiseLevel = new byte[capacity];
+            affectionLevel = new byte[capacity];
+            feeCents = new int[capacity];
+        }
+
+        void add(PetFeatureRow row) {
+            int slot = count++;
+            if (row.id() != null) {
+                idMostSig[slot] = row.id().getMostSignificantBits();
+                idLeastSig[slot] = row.id().getLeastSignificantBits();
+            }
+            energyLevel[slot] = (byte) row.energyLevel().ordinal();
+            petSize[slot] = (byte) row.size().ordinal();
+            ageGroup[slot] = (byte) row.ageGroup().ordinal();
+            trainability[slot] = (byte) row.trainability().ordinal();
+            sociability[slot] = (byte) row.sociability().ordinal();
+            noiseLevel[slot] = noiseCode(row.noiseLevel());
+            affectionLevel[slot] = row.affectionLevel() != null ? row.affectionLevel().byteValue() : 0;
+            feeCents[slot] = row.adoptionFee() != null ? Math.toIntExact(toCents(row.adoptionFee())) : 0;
+        }
+
+        void copy(Snapshot source, int from) {
+            int slot = count++;
+            idMostSig[slot] = source.idMostSig[from];
+            idLeastSig[slot] = source.idLeastSig[from];
+            energyLevel[slot] = source.energyLevel[from];
+            petSize[slot] = source.petSize[from];
+            ageGroup[slot] = source.ageGroup[from];
+            trainability[slot] = source.trainability[from];
+            sociability[slot] = source.sociability[from];
+            noiseLevel[slot] = source.noiseLevel[from];
+            affectionLevel[slot] = source.affectionLevel[from];
+            feeCents[slot] = source.feeCents[from];
+        }
+
+        Snapshot toSnapshot() {
+            return new Snapshot(this);
+        }
+    }
+}
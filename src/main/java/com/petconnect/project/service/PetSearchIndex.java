@@ -0,0 +1,420 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.event.PetChangedEvent;
+import com.petconnect.project.repository.PetRepository;
+import com.petconnect.project.repository.PetSearchRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over the name, species, breed and colour of
+ * every available pet, answering substring and misspelled queries without going
+ * to the database.
+ *
+ * Text is lower-cased and split into words on anything that is not a letter or
+ * digit, and each word is padded like pg_trgm ({@code "  lab "}) before its
+ * trigrams are taken. Every trigram maps to a posting list of document numbers in
+ * ascending order. A changed pet is removed and appended as a new document, so
+ * posting lists stay sorted; removed documents are skipped until enough of them
+ * pile up to compact the index.
+ *
+ * Reads share a lock and writes take it exclusively, since a pet change touches
+ * only a few dozen posting lists and copying the whole index for it, as the match
+ * index does, would cost far more.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PetSearchIndex {
+
+    /**
+     * Share of the query's trigrams a pet must have to count as a misspelled match.
+     */
+    static final double SIMILARITY_THRESHOLD = 0.5;
+
+    private final PetRepository petRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> documentByPet = new HashMap<>();
+    // Per document; a removed document has a null pet id
+    private UUID[] petIds = new UUID[0];
+    private String[] names = new String[0];
+    private String[] texts = new String[0];
+    private int[] trigramCounts = new int[0];
+    private int documentCount;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<PetSearchRow> rows = petRepository.findAvailablePetSearchRows();
+        lock.writeLock().lock();
+        try {
+            clear(rows.size());
+            rows.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded with {} available pets", rows.size());
+    }
+
+    /**
+     * Re-reads the changed pet and replaces, adds or drops its document.
+     */
+    @Order(CatalogVersion.ORDER - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        Optional<PetSearchRow> row = petRepository.findAvailablePetSearchRowById(event.petId());
+        lock.writeLock().lock();
+        try {
+            remove(event.petId());
+            row.ifPresent(this::add);
+            if (documentCount > 1_024 && documentByPet.size() < documentCount / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks available pets against a free-text query, best first.
+     *
+     * Pets containing every query word come first, those matching on name ahead of
+     * the rest; a word shorter than three letters must start a word of the pet's
+     * text. Candidates are the intersection of the words' posting lists and are
+     * then checked against the text itself. When that yields fewer than
+     * {@code maxResults} pets, pets whose trigrams are similar enough to the
+     * query's follow, so misspellings still find something.
+     */
+    public List<UUID> search(String query, int maxResults) {
+        String[] words = words(query);
+        if (words.length == 0 || maxResults <= 0) {
+            return List.of();
+        }
+        long[] queryTrigrams = trigrams(words);
+
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            Set<Integer> matched = new HashSet<>();
+            for (int document : intersect(requiredTrigrams(words))) {
+                if (containsAll(texts[document], words)) {
+                    hits.add(new Hit(document, containsAll(names[document], words) ? 1 : 0,
+                            similarity(document, queryTrigrams), trigramCounts[document]));
+                    matched.add(document);
+                }
+            }
+            hits.sort(Hit.BEST_FIRST);
+            if (hits.size() < maxResults) {
+                List<Hit> similar = findSimilar(queryTrigrams, matched);
+                similar.sort(Hit.BEST_FIRST);
+                hits.addAll(similar);
+            }
+
+            List<UUID> ranked = new ArrayList<>(Math.min(hits.size(), maxResults));
+            for (int i = 0; i < hits.size() && ranked.size() < maxResults; i++) {
+                ranked.add(petIds[hits.get(i).document()]);
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents in every posting list, intersecting from the shortest list.
+     */
+    private int[] intersect(long[] trigrams) {
+        Postings[] lists = new Postings[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+
+        int[] result = new int[lists[0].size];
+        int count = 0;
+        for (int i = 0; i < lists[0].size; i++) {
+            int document = lists[0].documents[i];
+            boolean inAll = petIds[document] != null;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = lists[j].contains(document);
+            }
+            if (inAll) {
+                result[count++] = document;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Documents sharing at least {@code minShared} trigrams with the query, enough
+     * to reach the similarity threshold. Such a document must appear in one of the
+     * shortest {@code lists - minShared + 1} posting lists, so only those are
+     * scanned, and the longer ones are probed per candidate.
+     */
+    private List<Hit> findSimilar(long[] queryTrigrams, Set<Integer> excluded) {
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        int minShared = (int) Math.ceil(SIMILARITY_THRESHOLD * queryTrigrams.length);
+        if (lists.size() < minShared) {
+            return new ArrayList<>();
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        int scanned = lists.size() - minShared + 1;
+        int total = 0;
+        for (int i = 0; i < scanned; i++) {
+            total += lists.get(i).size;
+        }
+        int[] candidates = new int[total];
+        int offset = 0;
+        for (int i = 0; i < scanned; i++) {
+            Postings list = lists.get(i);
+            System.arraycopy(list.documents, 0, candidates, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(candidates);
+
+        List<Hit> similar = new ArrayList<>();
+        for (int start = 0; start < candidates.length; ) {
+            int document = candidates[start];
+            int end = start;
+            while (end < candidates.length && candidates[end] == document) {
+                end++;
+            }
+            int shared = end - start;
+            start = end;
+            if (petIds[document] == null || excluded.contains(document)) {
+                continue;
+            }
+            for (int i = scanned; i < lists.size(); i++) {
+                if (lists.get(i).contains(document)) {
+                    shared++;
+                }
+            }
+            if (shared >= minShared) {
+                similar.add(new Hit(document, 0, (double) shared / queryTrigrams.length, trigramCounts[document]));
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Share of the query's trigrams found in the document.
+     */
+    private double similarity(int document, long[] queryTrigrams) {
+        int shared = 0;
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.contains(document)) {
+                shared++;
+            }
+        }
+        return (double) shared / queryTrigrams.length;
+    }
+
+    private void add(PetSearchRow row) {
+        String name = normalize(row.name());
+        String text = String.join(" ", name, normalize(row.species()), normalize(row.breed()),
+                normalize(row.color())).trim();
+        add(row.id(), name, text);
+    }
+
+    private void add(UUID petId, String name, String text) {
+        int document = documentCount++;
+        if (document == petIds.length) {
+            int capacity = document * 2;
+            petIds = Arrays.copyOf(petIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+        }
+        petIds[document] = petId;
+        names[document] = name;
+        texts[document] = text;
+        long[] trigrams = trigrams(words(text));
+        trigramCounts[document] = trigrams.length;
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(document);
+        }
+        documentByPet.put(petId, document);
+    }
+
+    private void remove(UUID petId) {
+        Integer document = documentByPet.remove(petId);
+        if (document != null) {
+            petIds[document] = null;
+        }
+    }
+
+    /**
+     * Renumbers the live documents from zero, dropping removed ones.
+     */
+    private void compact() {
+        UUID[] oldPetIds = petIds;
+        String[] oldNames = names;
+        String[] oldTexts = texts;
+        int oldCount = documentCount;
+        clear(documentByPet.size());
+        for (int document = 0; document < oldCount; document++) {
+            if (oldPetIds[document] != null) {
+                add(oldPetIds[document], oldNames[document], oldTexts[document]);
+            }
+        }
+        log.debug("Search index compacted to {} pets", documentCount);
+    }
+
+    private void clear(int capacity) {
+        postings.clear();
+        documentByPet.clear();
+        petIds = new UUID[Math.max(16, capacity)];
+        names = new String[petIds.length];
+        texts = new String[petIds.length];
+        trigramCounts = new int[petIds.length];
+        documentCount = 0;
+    }
+
+    /**
+     * Lower-cases the text and turns every run of other characters than letters
+     * and digits into a single space.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (!normalized.isEmpty() && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString().trim();
+    }
+
+    static String[] words(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /**
+     * Distinct trigrams of the words, each padded with two spaces in front and
+     * one behind.
+     */
+    static long[] trigrams(String[] words) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(trigram(padded, i));
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Trigrams every document containing all the words must have: each word's own
+     * trigrams, or for a word shorter than three letters those of its padded
+     * start, which only occur at the start of a word.
+     */
+    static long[] requiredTrigrams(String[] words) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : words) {
+            if (word.length() >= 3) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    trigrams.add(trigram(word, i));
+                }
+            } else {
+                String padded = "  " + word;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    trigrams.add(trigram(padded, i));
+                }
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    private static boolean containsAll(String text, String[] words) {
+        for (String word : words) {
+            boolean found;
+            if (word.length() >= 3) {
+                found = text.contains(word);
+            } else {
+                found = text.startsWith(word) || text.contains(" " + word);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ascending document numbers containing one trigram.
+     */
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+    }
+
+    /**
+     * A matching document, ranked by tier, then by similarity, then shorter text first.
+     */
+    private record Hit(int document, int tier, double similarity, int trigramCount) {
+        static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::tier).reversed()
+                .thenComparing(Comparator.comparingDouble(Hit::similarity).reversed())
+                .thenComparingInt(Hit::trigramCount)
+                .thenComparingInt(Hit::document);
+    }
+}
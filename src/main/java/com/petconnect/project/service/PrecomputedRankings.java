@@ -0,0 +1,220 @@
+package com.petconnect.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.MatchScore;
+import com.petconnect.project.entity.MatchScoreSummary;
+import com.petconnect.project.repository.MatchScoreCatalogPetRepository;
+import com.petconnect.project.repository.MatchScoreRepository;
+import com.petconnect.project.repository.MatchScoreSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The rankings written by the nightly {@link MatchScoreBatchService}, loaded once
+ * per user and kept in memory with the catalogue they were ranked against. Users
+ * without a stored ranking are remembered too, so neither case reads the database
+ * on every page view; the batch evicts the users whose rows it rewrites.
+ * Entries are published under the {@code precomputedMatches} cache name.
+ *
+ * A stored ranking stays usable as pets change: {@link Catalog#changesTo} lists
+ * the pets that differ between its catalogue and the current index, and callers
+ * apply them to the ranking one pet at a time.
+ */
+@Component
+@Slf4j
+public class PrecomputedRankings {
+
+    // Catalogues still referenced; a run writes one, and a resumed run one more
+    private static final int MAX_CATALOGS = 4;
+
+    private final MatchScoreSummaryRepository matchScoreSummaryRepository;
+    private final MatchScoreRepository matchScoreRepository;
+    private final MatchScoreCatalogPetRepository matchScoreCatalogPetRepository;
+    private final Cache<UUID, Optional<Stored>> byUser;
+    private final Cache<UUID, Catalog> catalogs;
+
+    public PrecomputedRankings(MatchScoreSummaryRepository matchScoreSummaryRepository,
+                               MatchScoreRepository matchScoreRepository,
+                               MatchScoreCatalogPetRepository matchScoreCatalogPetRepository,
+                               MatchingProperties matchingProperties, MeterRegistry meterRegistry) {
+        this.matchScoreSummaryRepository = matchScoreSummaryRepository;
+        this.matchScoreRepository = matchScoreRepository;
+        this.matchScoreCatalogPetRepository = matchScoreCatalogPetRepository;
+        this.byUser = Caffeine.newBuilder()
+                .maximumSize(matchingProperties.getPrecomputedCacheMaxEntries())
+                .expireAfterWrite(matchingProperties.getCacheTtl())
+                .recordStats()
+                .build();
+        this.catalogs = Caffeine.newBuilder().maximumSize(MAX_CATALOGS).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUser, "precomputedMatches");
+    }
+
+    /**
+     * The user's stored ranking, or null when the batch has not reached them or
+     * ranked them for criteria or weights other than the plan's. A ranking stored
+     * for other criteria or weights is remembered as absent, so callers evict the
+     * user when their profile changes and everyone when the weights do.
+     */
+    public Stored find(UUID userId, ScoringPlan plan) {
+        Stored stored = byUser.get(userId, id -> load(id, plan)).orElse(null);
+        if (stored == null || !stored.matches().getCriteria().equals(plan.getCriteria())
+                || !stored.matches().getPlan().getWeights().equals(plan.getWeights())) {
+            return null;
+        }
+        return stored;
+    }
+
+    public void evict(Collection<UUID> userIds) {
+        byUser.invalidateAll(userIds);
+    }
+
+    public void evictAll() {
+        byUser.invalidateAll();
+    }
+
+    private Optional<Stored> load(UUID userId, ScoringPlan plan) {
+        MatchScoreSummary summary = matchScoreSummaryRepository.findById(userId).orElse(null);
+        if (summary == null || summary.getLifestyleSignature() != plan.getCriteria().getSignature()
+                || summary.getScoringWeights() != plan.getWeights().fingerprint()) {
+            return Optional.empty();
+        }
+        List<MatchScore> rows = matchScoreRepository.findByUserIdOrderByRankPosition(userId);
+        if (rows.size() != summary.getRankedCount()) {
+            return Optional.empty();
+        }
+        long[] idMostSig = new long[rows.size()];
+        long[] idLeastSig = new long[rows.size()];
+        int[] scoreCents = new int[rows.size()];
+        int[] reasons = new int[rows.size()];
+        for (int rank = 0; rank < rows.size(); rank++) {
+            MatchScore row = rows.get(rank);
+            idMostSig[rank] = row.getPetId().getMostSignificantBits();
+            idLeastSig[rank] = row.getPetId().getLeastSignificantBits();
+            scoreCents[rank] = row.getScoreCents();
+            reasons[rank] = row.getReasons();
+        }
+        RankedMatches matches = new RankedMatches(plan, idMostSig, idLeastSig,
+                scoreCents, reasons, summary.getTotalMatches(), summary.getExcellentMatches(),
+                summary.getGreatMatches(), summary.getGoodMatches());
+        log.debug("Loaded precomputed matches for user {} from run {}", userId, summary.getRunId());
+        return Optional.of(new Stored(matches, catalogs.get(summary.getCatalogId(), this::loadCatalog)));
+    }
+
+    private Catalog loadCatalog(UUID catalogId) {
+        PetMatchIndex.Snapshot pets = PetMatchIndex.Snapshot.of(
+                matchScoreCatalogPetRepository.findFeaturesByCatalogId(catalogId));
+        log.info("Loaded match score catalogue {} with {} pets", catalogId, pets.size());
+        return new Catalog(pets);
+    }
+
+    /**
+     * A stored ranking together with the catalogue it was ranked against, and the
+     * ranking last brought up to date with the index.
+     */
+    public static final class Stored {
+        private final RankedMatches matches;
+        private final Catalog catalog;
+        private volatile Current current;
+
+        Stored(RankedMatches matches, Catalog catalog) {
+            this.matches = matches;
+            this.catalog = catalog;
+        }
+
+        /**
+         * The ranking as the batch stored it.
+         */
+        public RankedMatches matches() {
+            return matches;
+        }
+
+        public Catalog catalog() {
+            return catalog;
+        }
+
+        /**
+         * The ranking brought up to date with {@code pets}, or null when it has not been yet.
+         */
+        public RankedMatches currentFor(PetMatchIndex.Snapshot pets) {
+            Current last = current;
+            return last != null && last.pets() == pets ? last.matches() : null;
+        }
+
+        public void setCurrent(PetMatchIndex.Snapshot pets, RankedMatches updated) {
+            current = new Current(pets, updated);
+        }
+
+        private record Current(PetMatchIndex.Snapshot pets, RankedMatches matches) {
+        }
+    }
+
+    /**
+     * The pets a batch run ranked against.
+     */
+    public static final class Catalog {
+        private final PetMatchIndex.Snapshot pets;
+        private volatile Changes changes;
+
+        Catalog(PetMatchIndex.Snapshot pets) {
+            this.pets = pets;
+        }
+
+        public PetMatchIndex.Snapshot pets() {
+            return pets;
+        }
+
+        /**
+         * The pets added, removed or changed between this catalogue and {@code current},
+         * found by walking both in id order. Shared by every user ranked against the
+         * catalogue, and recomputed only when the index moves on.
+         */
+        public List<Change> changesTo(PetMatchIndex.Snapshot current) {
+            Changes last = changes;
+            if (last != null && last.to() == current) {
+                return last.list();
+            }
+            List<Change> list = new ArrayList<>();
+            int before = 0;
+            int after = 0;
+            while (before < pets.size() || after < current.size()) {
+                int cmp = before == pets.size() ? 1
+                        : after == current.size() ? -1
+                        : PetMatchIndex.Snapshot.compareIds(pets.idMostSig(before), pets.idLeastSig(before),
+                                current.idMostSig(after), current.idLeastSig(after));
+                if (cmp < 0) {
+                    list.add(new Change(pets.petId(before), before++, -1));
+                } else if (cmp > 0) {
+                    list.add(new Change(current.petId(after), -1, after++));
+                } else {
+                    if (!pets.sameFeatures(before, current, after)) {
+                        list.add(new Change(pets.petId(before), before, after));
+                    }
+                    before++;
+                    after++;
+                }
+            }
+            changes = new Changes(current, list);
+            return list;
+        }
+
+        private record Changes(PetMatchIndex.Snapshot to, List<Change> list) {
+        }
+    }
+
+    /**
+     * One changed pet, by its slot in the catalogue and in the current index;
+     * negative where it is absent.
+     */
+    public record Change(UUID petId, int before, int after) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.petconnect.project.service;
+
+import java.util.UUID;
+
+/**
+ * The best-ranked pets for one set of {@link MatchCriteria}, held as primitive
+ * columns so a cached ranking costs a few bytes per pet. The {@link ScoringPlan}
+ * the scores came from is kept with them, to score changed pets consistently. Only the first
+ * {@link #size()} ranks are kept; {@link #getTotal()} and the quality counts
+ * cover every available pet.
+ */
+public final class RankedMatches {
+
+    /**
+     * Score passed to {@link #withPetChanged} for a pet that is not in the index.
+     */
+    static final int NOT_INDEXED = -1;
+
+    static final int EXCELLENT_CENTS = 8_500;
+    static final int GREAT_CENTS = 7_000;
+    static final int GOOD_CENTS = 5_500;
+
+    private final ScoringPlan plan;
+    private final long[] idMostSig;
+    private final long[] idLeastSig;
+    private final int[] scoreCents;
+    private final int[] reasons;
+    private final int total;
+    private final int excellentMatches;
+    private final int greatMatches;
+    private final int goodMatches;
+
+    RankedMatches(ScoringPlan plan, long[] idMostSig, long[] idLeastSig, int[] scoreCents, int[] reasons,
+                  int total, int excellentMatches, int greatMatches, int goodMatches) {
+        this.plan = plan;
+        this.idMostSig = idMostSig;
+        this.idLeastSig = idLeastSig;
+        this.scoreCents = scoreCents;
+        this.reasons = reasons;
+        this.total = total;
+        this.excellentMatches = excellentMatches;
+        this.greatMatches = greatMatches;
+        this.goodMatches = goodMatches;
+    }
+
+    public MatchCriteria getCriteria() {
+        return plan.getCriteria();
+    }
+
+    ScoringPlan getPlan() {
+        return plan;
+    }
+
+    public int size() {
+        return scoreCents.length;
+    }
+
+    public UUID petId(int rank) {
+        return new UUID(idMostSig[rank], idLeastSig[rank]);
+    }
+
+    public int scoreCents(int rank) {
+        return scoreCents[rank];
+    }
+
+    public int reasons(int rank) {
+        return reasons[rank];
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getExcellentMatches() {
+        return excellentMatches;
+    }
+
+    public int getGreatMatches() {
+        return greatMatches;
+    }
+
+    public int getGoodMatches() {
+        return goodMatches;
+    }
+
+    /**
+     * Whether every rank before {@code end} is held, either because the ranking
+     * is that deep or because there are no more pets.
+     */
+    public boolean covers(int end) {
+        return size() >= Math.min(total, end);
+    }
+
+    boolean isTruncated() {
+        return size() < total;
+    }
+
+    public int rankOf(UUID petId) {
+        long msb = petId.getMostSignificantBits();
+        long lsb = petId.getLeastSignificantBits();
+        for (int rank = 0; rank < idMostSig.length; rank++) {
+            if (idMostSig[rank] == msb && idLeastSig[rank] == lsb) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Applies a change to one pet's score without re-ranking everything else:
+     * the pet is removed from, moved within or inserted into the held ranks and
+     * the counts are adjusted. The result is exactly what a full re-rank would
+     * hold, except that a truncated ranking the pet drops out of is one rank
+     * shorter.
+     *
+     * @param oldCents the pet's previous score, or {@link #NOT_INDEXED}
+     * @param newCents the pet's new score, or {@link #NOT_INDEXED}
+     * @param newReasons the pet's new reason mask, ignored when it left the index
+     */
+    RankedMatches withPetChanged(UUID petId, int oldCents, int newCents, int newReasons) {
+        if (oldCents == NOT_INDEXED && newCents == NOT_INDEXED) {
+            return this;
+        }
+        int newTotal = total + (newCents != NOT_INDEXED ? 1 : 0) - (oldCents != NOT_INDEXED ? 1 : 0);
+        int[] bands = {0, goodMatches, greatMatches, excellentMatches};
+        if (oldCents != NOT_INDEXED) {
+            bands[qualityBand(oldCents)]--;
+        }
+        if (newCents != NOT_INDEXED) {
+            bands[qualityBand(newCents)]++;
+        }
+
+        int removed = rankOf(petId);
+        int kept = size() - (removed >= 0 ? 1 : 0);
+        int insertAt = -1;
+        if (newCents != NOT_INDEXED) {
+            insertAt = kept;
+            for (int rank = 0, position = 0; rank < size(); rank++) {
+                if (rank == removed) {
+                    continue;
+                }
+                if (ranksAhead(newCents, petId, rank)) {
+                    insertAt = position;
+                    break;
+                }
+                position++;
+            }
+            // Below every held rank of a truncated ranking, unheld pets may outrank it
+            boolean othersTruncated = kept < newTotal - 1;
+            if (insertAt == kept && othersTruncated) {
+                insertAt = -1;
+            }
+        }
+
+        int newSize = kept + (insertAt >= 0 ? 1 : 0);
+        if (isTruncated() && newSize > size()) {
+            newSize = size();
+        }
+        long[] newMostSig = new long[newSize];
+        long[] newLeastSig = new long[newSize];
+        int[] newScores = new int[newSize];
+        int[] newReasonMasks = new int[newSize];
+        int rank = 0;
+        for (int position = 0; position < newSize; position++) {
+            if (position == insertAt) {
+                newMostSig[position] = petId.getMostSignificantBits();
+                newLeastSig[position] = petId.getLeastSignificantBits();
+                newScores[position] = newCents;
+                newReasonMasks[position] = newReasons;
+                continue;
+            }
+            if (rank == removed) {
+                rank++;
+            }
+            newMostSig[position] = idMostSig[rank];
+            newLeastSig[position] = idLeastSig[rank];
+            newScores[position] = scoreCents[rank];
+            newReasonMasks[position] = reasons[rank];
+            rank++;
+        }
+        return new RankedMatches(plan, newMostSig, newLeastSig, newScores, newReasonMasks,
+                newTotal, bands[3], bands[2], bands[1]);
+    }
+
+    static int qualityBand(int scoreCents) {
+        if (scoreCents >= EXCELLENT_CENTS) {
+            return 3;
+        }
+        if (scoreCents >= GREAT_CENTS) {
+            return 2;
+        }
+        return scoreCents >= GOOD_CENTS ? 1 : 0;
+    }
+
+    private boolean ranksAhead(int cents, UUID petId, int rank) {
+        if (cents != scoreCents[rank]) {
+            return cents > scoreCents[rank];
+        }
+        return PetMatchIndex.Snapshot.compareIds(petId.getMostSignificantBits(), petId.getLeastSignificantBits(),
+                idMostSig[rank], idLeastSig[rank]) < 0;
+    }
+}
@@ -0,0 +1,244 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.Pet;
+import com.petconnect.project.entity.User;
+import com.petconnect.project.repository.LifestyleFeatureRow;
+import com.petconnect.project.repository.LifestyleProfileRepository;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Answers the shelter's question "who would be a great home for this pet?" by
+ * scoring adopter lifestyle profiles against one pet with the same arithmetic
+ * as {@link MatchmakingService}.
+ *
+ * Profiles are read as projections in keyset-ordered chunks, so memory stays
+ * bounded by the chunk size and the number of results rather than the number of
+ * adopters. Each chunk is scored in parallel on the match scoring pool while the
+ * next one is being read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReverseMatchingService {
+
+    private final LifestyleProfileRepository lifestyleProfileRepository;
+    private final UserRepository userRepository;
+    private final MatchmakingService matchmakingService;
+    private final ScoringPlanner scoringPlanner;
+    private final MatchingProperties matchingProperties;
+    private final ForkJoinPool matchScoringPool;
+
+    /**
+     * Ranks adopters for a pet, best first.
+     *
+     * @param pet The pet to find homes for; it must have a personality profile
+     * @param applicantsOnly Whether to consider only users who applied for this pet
+     * @return The best adopters together with the number of profiles scored
+     */
+    public AdopterRanking rankAdopters(Pet pet, boolean applicantsOnly) {
+        if (pet.getPersonalityProfile() == null) {
+            throw new RuntimeException("Pet has no personality profile to match against");
+        }
+
+        long started = System.nanoTime();
+        PetMatchIndex.Snapshot petFeatures = PetMatchIndex.Snapshot.of(List.of(PetFeatureRow.from(pet)));
+        ScoringWeights weights = scoringPlanner.getWeights();
+        int limit = matchingProperties.getReverseMaxResults();
+        Pageable chunk = PageRequest.of(0, matchingProperties.getReverseChunkSize());
+
+        List<LifestyleFeatureRow> best = new ArrayList<>(limit);
+        int[] bestCents = new int[0];
+        int profilesScored = 0;
+        int excellentMatches = 0;
+        int greatMatches = 0;
+        int goodMatches = 0;
+
+        List<LifestyleFeatureRow> rows = fetchChunk(pet.getId(), applicantsOnly, "", chunk);
+        while (!rows.isEmpty()) {
+            List<LifestyleFeatureRow> current = rows;
+            CompletableFuture<int[]> scoring = CompletableFuture.supplyAsync(
+                    () -> scoreChunk(current, weights, petFeatures), matchScoringPool);
+            rows = current.size() < chunk.getPageSize()
+                    ? List.of()
+                    : fetchChunk(pet.getId(), applicantsOnly, current.get(current.size() - 1).id(), chunk);
+            int[] cents = scoring.join();
+
+            // Merge the held best with this chunk; earlier profiles win ties
+            TopKHeap topAdopters = new TopKHeap(Math.min(limit, best.size() + cents.length));
+            for (int i = 0; i < best.size(); i++) {
+                topAdopters.offer(TopKHeap.key(bestCents[i], i));
+            }
+            for (int i = 0; i < cents.length; i++) {
+                int scoreCents = cents[i];
+                if (scoreCents >= RankedMatches.EXCELLENT_CENTS) {
+                    excellentMatches++;
+                } else if (scoreCents >= RankedMatches.GREAT_CENTS) {
+                    greatMatches++;
+                } else if (scoreCents >= RankedMatches.GOOD_CENTS) {
+                    goodMatches++;
+                }
+                topAdopters.offer(TopKHeap.key(scoreCents, best.size() + i));
+            }
+            profilesScored += cents.length;
+
+            long[] keys = topAdopters.toSortedArray();
+            List<LifestyleFeatureRow> merged = new ArrayList<>(keys.length);
+            int[] mergedCents = new int[keys.length];
+            for (int rank = 0; rank < keys.length; rank++) {
+                int index = TopKHeap.slot(keys[rank]);
+                merged.add(index < best.size() ? best.get(index) : current.get(index - best.size()));
+                mergedCents[rank] = TopKHeap.scoreCents(keys[rank]);
+            }
+            best = merged;
+            bestCents = mergedCents;
+        }
+
+        List<AdopterMatch> matches = toMatches(best, bestCents, petFeatures);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Ranked {} adopter profiles for pet {} in {} ms", profilesScored, pet.getId(), elapsedMs);
+        return new AdopterRanking(matches, applicantsOnly, profilesScored, excellentMatches, greatMatches, goodMatches);
+    }
+
+    private List<LifestyleFeatureRow> fetchChunk(UUID petId, boolean applicantsOnly, String afterId, Pageable chunk) {
+        return applicantsOnly
+                ? lifestyleProfileRepository.findApplicantFeatureChunk(petId, afterId, chunk)
+                : lifestyleProfileRepository.findFeatureChunk(afterId, chunk);
+    }
+
+    /**
+     * Each profile is compared with the pet once, so it is scored without compiling a plan.
+     * Runs on a match scoring pool thread, so the parallel stream forks into that
+     * pool rather than the common one.
+     */
+    private int[] scoreChunk(List<LifestyleFeatureRow> rows, ScoringWeights weights,
+                             PetMatchIndex.Snapshot petFeatures) {
+        int[] cents = new int[rows.size()];
+        IntStream.range(0, cents.length).parallel().forEach(i ->
+                cents[i] = ScoringPlan.scoreCents(MatchCriteria.from(rows.get(i)), weights, petFeatures, 0));
+        return cents;
+    }
+
+    private List<AdopterMatch> toMatches(List<LifestyleFeatureRow> best, int[] bestCents,
+                                         PetMatchIndex.Snapshot petFeatures) {
+        List<UUID> userIds = best.stream().map(LifestyleFeatureRow::userId).toList();
+        Map<UUID, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<AdopterMatch> matches = new ArrayList<>(best.size());
+        for (int rank = 0; rank < best.size(); rank++) {
+            LifestyleFeatureRow row = best.get(rank);
+            User user = usersById.get(row.userId());
+            if (user != null) {
+                int reasons = matchmakingService.matchReasons(MatchCriteria.from(row), petFeatures, 0);
+                matches.add(new AdopterMatch(user, bestCents[rank] / 100.0, reasons));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * One adopter ranked for a pet
+     */
+    public static class AdopterMatch {
+        private final User user;
+        private final double compatibilityScore;
+        private final int reasonMask;
+
+        public AdopterMatch(User user, double compatibilityScore, int reasonMask) {
+            this.user = user;
+            this.compatibilityScore = compatibilityScore;
+            this.reasonMask = reasonMask;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public double getCompatibilityScore() {
+            return compatibilityScore;
+        }
+
+        public String getCompatibilityPercentage() {
+            return String.format("%.0f%%", compatibilityScore);
+        }
+
+        public int getReasonMask() {
+            return reasonMask;
+        }
+
+        public String getExplanation() {
+            return MatchReason.describe(reasonMask);
+        }
+
+        public String getMatchQuality() {
+            return MatchmakingService.PetMatchResult.matchQuality(compatibilityScore);
+        }
+
+        public String getMatchQualityBadgeClass() {
+            return MatchmakingService.PetMatchResult.matchQualityBadgeClass(compatibilityScore);
+        }
+    }
+
+    /**
+     * The best adopters for a pet plus counts over every profile scored
+     */
+    public static class AdopterRanking {
+        private final List<AdopterMatch> matches;
+        private final boolean applicantsOnly;
+        private final int profilesScored;
+        private final int excellentMatches;
+        private final int greatMatches;
+        private final int goodMatches;
+
+        public AdopterRanking(List<AdopterMatch> matches, boolean applicantsOnly, int profilesScored,
+                              int excellentMatches, int greatMatches, int goodMatches) {
+            this.matches = matches;
+            this.applicantsOnly = applicantsOnly;
+            this.profilesScored = profilesScored;
+            this.excellentMatches = excellentMatches;
+            this.greatMatches = greatMatches;
+            this.goodMatches = goodMatches;
+        }
+
+        public List<AdopterMatch> getMatches() {
+            return matches;
+        }
+
+        public boolean isApplicantsOnly() {
+            return applicantsOnly;
+        }
+
+        public int getProfilesScored() {
+            return profilesScored;
+        }
+
+        public int getExcellentMatches() {
+            return excellentMatches;
+        }
+
+        public int getGreatMatches() {
+            return greatMatches;
+        }
+
+        public int getGoodMatches() {
+            return goodMatches;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.EnergyLevel;
+import com.petconnect.project.entity.PetSize;
+import com.petconnect.project.entity.SociabilityLevel;
+
+/**
+ * The adopter's side of the compatibility score compiled once against a set of
+ * {@link ScoringWeights}. Every factor except the budget depends only on a pet's
+ * categorical attributes, so those are precomputed into lookup tables indexed by
+ * bit fields of {@link PetMatchIndex.Snapshot#packedFeatures()}: scoring a pet is
+ * three array loads plus the budget factor.
+ *
+ * Points are integers in units of 1/100,000 of a point, in which every factor
+ * value times a whole weight is exact. A total therefore does not depend on the
+ * order its factors are added in, which is what lets the tables merge factors
+ * and the vector kernel reproduce the scalar scores, and it rounds to cents half up.
+ *
+ * Scoring factors, each worth up to its weight in points:
+ * - Energy Level Compatibility
+ * - Size Preference
+ * - Age Preference
+ * - Budget Compatibility
+ * - Living Situation Compatibility
+ * - Experience Level vs Trainability
+ * - Social Compatibility
+ */
+final class ScoringPlan {
+
+    static final int UNITS_PER_POINT = 100_000;
+    static final int UNITS_PER_TENTH = UNITS_PER_POINT / 10;
+    static final int UNITS_PER_CENT = UNITS_PER_POINT / 100;
+
+    // Budget factor in tenths outside the proportional range
+    static final int NO_BUDGET_TENTHS = 9;
+    static final int FREE_TENTHS = 10;
+    static final int OVER_BUDGET_TENTHS = 1;
+
+    private static final int[][] EXPERIENCE_TENTHS = {
+            // EASY, MODERATE, CHALLENGING, EXPERT_ONLY
+            {10, 6, 2, 0}, // first_time
+            {9, 10, 7, 3}, // some_experience
+            {8, 9, 10, 10}  // very_experienced
+    };
+
+    // Energy, size, age and trainability occupy the packed bits below sociability
+    private static final int ORDINAL_MASK = (1 << PetMatchIndex.PACKED_SOCIABILITY_SHIFT) - 1;
+    private static final int FEATURE_COMBINATIONS = 1 << (PetMatchIndex.PACKED_AFFECTIONATE_SHIFT + 1);
+
+    private final MatchCriteria criteria;
+    private final ScoringWeights weights;
+    // Energy, size, age and experience points by the packed ordinal bits
+    private final int[] ordinalUnits;
+    // Social points by the packed bits from sociability up
+    private final int[] socialUnits;
+    // Living situation points by livingIndex(size, energy, noise)
+    private final int[] livingUnits;
+    // Every categorical factor by the whole packed value, built for the vector kernel
+    private volatile int[] featureUnits;
+
+    private ScoringPlan(MatchCriteria criteria, ScoringWeights weights) {
+        this.criteria = criteria;
+        this.weights = weights;
+
+        this.ordinalUnits = new int[ORDINAL_MASK + 1];
+        for (int features = 0; features < ordinalUnits.length; features++) {
+            int tenths = energyTenths(criteria, field(features, PetMatchIndex.PACKED_ENERGY_SHIFT)) * weights.energy()
+                    + sizeTenths(criteria, field(features, PetMatchIndex.PACKED_SIZE_SHIFT)) * weights.size()
+                    + ageTenths(criteria, field(features, PetMatchIndex.PACKED_AGE_SHIFT)) * weights.age()
+                    + experienceTenths(criteria, field(features, PetMatchIndex.PACKED_TRAINABILITY_SHIFT))
+                    * weights.experience();
+            ordinalUnits[features] = tenths * UNITS_PER_TENTH;
+        }
+
+        this.socialUnits = new int[FEATURE_COMBINATIONS >>> PetMatchIndex.PACKED_SOCIABILITY_SHIFT];
+        for (int high = 0; high < socialUnits.length; high++) {
+            int features = high << PetMatchIndex.PACKED_SOCIABILITY_SHIFT;
+            socialUnits[high] = socialTenths(criteria, field(features, PetMatchIndex.PACKED_SOCIABILITY_SHIFT),
+                    affectionate(features)) * weights.social() * UNITS_PER_TENTH;
+        }
+
+        this.livingUnits = new int[livingIndex(PetMatchIndex.PACKED_FIELD_MASK, PetMatchIndex.PACKED_FIELD_MASK,
+                PetMatchIndex.PACKED_FIELD_MASK) + 1];
+        for (int size = 0; size <= PetMatchIndex.PACKED_FIELD_MASK; size++) {
+            for (int energy = 0; energy <= PetMatchIndex.PACKED_FIELD_MASK; energy++) {
+                for (int noise = 0; noise <= PetMatchIndex.PACKED_FIELD_MASK; noise++) {
+                    livingUnits[livingIndex(size, energy, noise)] = livingSituationTenths(criteria, size, energy, noise)
+                            * weights.livingSituation() * UNITS_PER_TENTH;
+                }
+            }
+        }
+    }
+
+    static ScoringPlan compile(MatchCriteria criteria, ScoringWeights weights) {
+        return new ScoringPlan(criteria, weights);
+    }
+
+    MatchCriteria getCriteria() {
+        return criteria;
+    }
+
+    ScoringWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Score of one indexed pet in cents, the unit rankings are kept in.
+     */
+    int scoreCents(PetMatchIndex.Snapshot pets, int slot) {
+        return toCents(categoricalUnits(pets.packedFeatures()[slot]) + budgetUnits(pets.feeCents(slot)));
+    }
+
+    /**
+     * Scores slots {@code [from, to)} into {@code cents[0 .. to - from)}.
+     */
+    void scoreCents(PetMatchIndex.Snapshot pets, int from, int to, int[] cents) {
+        int[] packed = pets.packedFeatures();
+        int[] fees = pets.feeCentsColumn();
+        for (int slot = from; slot < to; slot++) {
+            cents[slot - from] = toCents(categoricalUnits(packed[slot]) + budgetUnits(fees[slot]));
+        }
+    }
+
+    /**
+     * Scores one pet without compiling a plan, for comparisons that are made once,
+     * such as one adopter against one pet. Adds up the same integers as the tables.
+     */
+    static int scoreCents(MatchCriteria criteria, ScoringWeights weights, PetMatchIndex.Snapshot pets, int slot) {
+        int petSize = pets.petSize(slot);
+        int energyLevel = pets.energyLevel(slot);
+        int tenths = energyTenths(criteria, energyLevel) * weights.energy()
+                + sizeTenths(criteria, petSize) * weights.size()
+                + ageTenths(criteria, pets.ageGroup(slot)) * weights.age()
+                + livingSituationTenths(criteria, petSize, energyLevel, pets.noiseLevel(slot))
+                * weights.livingSituation()
+                + experienceTenths(criteria, pets.trainability(slot)) * weights.experience()
+                + socialTenths(criteria, pets.sociability(slot),
+                pets.affectionLevel(slot) >= PetMatchIndex.AFFECTIONATE_LEVEL ? 1 : 0) * weights.social();
+        int budget = weights.budget() * budgetUnitsPerPoint(criteria.getMaxFeeCents(), pets.feeCents(slot));
+        return toCents(tenths * UNITS_PER_TENTH + budget);
+    }
+
+    /**
+     * Points of every factor but the budget, for one packed feature value
+     */
+    int categoricalUnits(int features) {
+        return ordinalUnits[features & ORDINAL_MASK]
+                + socialUnits[features >>> PetMatchIndex.PACKED_SOCIABILITY_SHIFT]
+                + livingUnits[livingIndex(field(features, PetMatchIndex.PACKED_SIZE_SHIFT),
+                field(features, PetMatchIndex.PACKED_ENERGY_SHIFT), field(features, PetMatchIndex.PACKED_NOISE_SHIFT))];
+    }
+
+    /**
+     * {@link #categoricalUnits} for every packed feature value, built on first use.
+     */
+    int[] featureUnits() {
+        int[] table = featureUnits;
+        if (table == null) {
+            table = new int[FEATURE_COMBINATIONS];
+            for (int features = 0; features < table.length; features++) {
+                table[features] = categoricalUnits(features);
+            }
+            featureUnits = table;
+        }
+        return table;
+    }
+
+    int budgetUnits(int feeCents) {
+        return weights.budget() * budgetUnitsPerPoint(criteria.getMaxFeeCents(), feeCents);
+    }
+
+    static int toCents(int units) {
+        return (units + UNITS_PER_CENT / 2) / UNITS_PER_CENT;
+    }
+
+    private static int field(int features, int shift) {
+        return features >>> shift & PetMatchIndex.PACKED_FIELD_MASK;
+    }
+
+    private static int affectionate(int features) {
+        return features >>> PetMatchIndex.PACKED_AFFECTIONATE_SHIFT & 1;
+    }
+
+    private static int livingIndex(int petSize, int energyLevel, int noiseLevel) {
+        return petSize << 4 | energyLevel << 2 | noiseLevel;
+    }
+
+    private static int energyTenths(MatchCriteria criteria, int petEnergy) {
+        // Distance between energy levels (ordinals are LOW..VERY_HIGH in order)
+        int distance = Math.abs(criteria.getActivityLevel() - petEnergy);
+
+        // Score decreases with distance
+        return switch (distance) {
+            case 0 -> 10; // Perfect match: same energy levels
+            case 1 -> 8; // One level difference
+            case 2 -> 5; // Two levels difference
+            case 3 -> 2; // Maximum difference
+            default -> 0;
+        };
+    }
+
+    private static int sizeTenths(MatchCriteria criteria, int petSize) {
+        if (criteria.getPreferredSize() == MatchCriteria.NO_PREFERENCE) {
+            return 8; // No preference is good but not perfect
+        }
+        return criteria.getPreferredSize() == petSize ? 10 : 3;
+    }
+
+    private static int ageTenths(MatchCriteria criteria, int petAge) {
+        if (criteria.getPreferredAge() == MatchCriteria.NO_PREFERENCE) {
+            return 8; // No preference is good but not perfect
+        }
+        return criteria.getPreferredAge() == petAge ? 10 : 4;
+    }
+
+    /**
+     * Budget factor in units per point of weight. Within budget it is
+     * {@code max(0.5, 1 - 0.3 * usage)}, with the share of the budget used rounded
+     * HALF_UP to 4 decimal places in integer arithmetic.
+     */
+    private static int budgetUnitsPerPoint(long maxBudgetCents, int adoptionFeeCents) {
+        if (maxBudgetCents == MatchCriteria.NO_BUDGET) {
+            return NO_BUDGET_TENTHS * UNITS_PER_TENTH; // No budget limit specified
+        }
+        if (adoptionFeeCents == 0) {
+            return FREE_TENTHS * UNITS_PER_TENTH; // Free adoption
+        }
+        if (adoptionFeeCents > maxBudgetCents) {
+            return OVER_BUDGET_TENTHS * UNITS_PER_TENTH; // Over budget
+        }
+        long usageTenThousandths = (adoptionFeeCents * 20_000L + maxBudgetCents) / (2 * maxBudgetCents);
+        return (int) Math.max(UNITS_PER_POINT / 2, UNITS_PER_POINT - 3 * usageTenThousandths);
+    }
+
+    private static int livingSituationTenths(MatchCriteria criteria, int petSize, int energyLevel, int noiseLevel) {
+        int score = 5; // Base score
+
+        // Apartment living considerations
+        if (criteria.isApartment()) {
+            // Smaller pets and quieter pets are better for apartments
+            if (petSize == PetSize.SMALL.ordinal() || petSize == PetSize.MEDIUM.ordinal()) {
+                score += 3;
+            }
+            if (noiseLevel == PetMatchIndex.NOISE_QUIET) {
+                score += 2;
+            } else if (noiseLevel == PetMatchIndex.NOISE_VOCAL) {
+                score -= 2;
+            }
+        }
+
+        // House with yard considerations
+        if (criteria.isHouseWithYard()) {
+            // Larger pets and more active pets benefit from yards
+            if (petSize == PetSize.LARGE.ordinal() || petSize == PetSize.EXTRA_LARGE.ordinal()) {
+                score += 2;
+            }
+            if (energyLevel == EnergyLevel.HIGH.ordinal() || energyLevel == EnergyLevel.VERY_HIGH.ordinal()) {
+                score += 3;
+            }
+        }
+
+        return Math.min(10, score);
+    }
+
+    private static int experienceTenths(MatchCriteria criteria, int trainability) {
+        if (criteria.getExperience() == MatchCriteria.EXPERIENCE_UNKNOWN) {
+            return 5;
+        }
+        return EXPERIENCE_TENTHS[criteria.getExperience()][trainability];
+    }
+
+    private static int socialTenths(MatchCriteria criteria, int sociability, int affectionate) {
+        int score = 5; // Base score
+
+        // Consider children compatibility
+        if (criteria.hasChildren()) {
+            // More social and affectionate pets are better with children
+            if (sociability == SociabilityLevel.SOCIAL.ordinal() ||
+                sociability == SociabilityLevel.VERY_SOCIAL.ordinal()) {
+                score += 3;
+            }
+            if (affectionate == 1) {
+                score += 2;
+            }
+        }
+
+        // Consider other pets
+        if (criteria.hasOtherPets()) {
+            // Moderate to social pets usually do better with other pets
+            if (sociability == SociabilityLevel.MODERATE.ordinal() ||
+                sociability == SociabilityLevel.SOCIAL.ordinal()) {
+                score += 3;
+            } else if (sociability == SociabilityLevel.SHY.ordinal()) {
+                score -= 2;
+            }
+        }
+
+        return Math.min(10, score);
+    }
+}
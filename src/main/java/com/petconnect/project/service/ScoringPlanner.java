@@ -0,0 +1,34 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link ScoringWeights} in force, starting from
+ * {@code petconnect.matching.weights.*}. Weights are swapped as one immutable
+ * value, so callers read them once and compile every {@link ScoringPlan} for a
+ * request against that single consistent set; a plan compiled before a swap is
+ * recognised by its weights.
+ */
+@Component
+public class ScoringPlanner {
+
+    private final AtomicReference<ScoringWeights> weights;
+
+    public ScoringPlanner(MatchingProperties matchingProperties) {
+        this.weights = new AtomicReference<>(ScoringWeights.from(matchingProperties.getWeights()));
+    }
+
+    public ScoringWeights getWeights() {
+        return weights.get();
+    }
+
+    /**
+     * Replaces the weights and returns the previous ones.
+     */
+    ScoringWeights setWeights(ScoringWeights newWeights) {
+        return weights.getAndSet(newWeights);
+    }
+}
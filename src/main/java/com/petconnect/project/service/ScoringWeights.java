@@ -0,0 +1,47 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+
+/**
+ * Points each compatibility factor contributes at a perfect match. The weights
+ * add up to 100, so a score stays a percentage and the quality bands keep their
+ * meaning whatever the mix.
+ */
+public record ScoringWeights(int energy, int size, int age, int budget, int livingSituation, int experience,
+                             int social) {
+
+    public static final int TOTAL = 100;
+
+    public ScoringWeights {
+        int[] weights = {energy, size, age, budget, livingSituation, experience, social};
+        int total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Scoring weights cannot be negative");
+            }
+            total += weight;
+        }
+        if (total != TOTAL) {
+            throw new IllegalArgumentException("Scoring weights must add up to " + TOTAL + ", not " + total);
+        }
+    }
+
+    public static ScoringWeights from(MatchingProperties.Weights weights) {
+        return new ScoringWeights(weights.getEnergy(), weights.getSize(), weights.getAge(), weights.getBudget(),
+                weights.getLivingSituation(), weights.getExperience(), weights.getSocial());
+    }
+
+    /**
+     * The seven weights packed seven bits each, stored with precomputed rankings
+     * so rankings scored with other weights are recognised.
+     */
+    public long fingerprint() {
+        return energy
+                | (long) size << 7
+                | (long) age << 14
+                | (long) budget << 21
+                | (long) livingSituation << 28
+                | (long) experience << 35
+                | (long) social << 42;
+    }
+}
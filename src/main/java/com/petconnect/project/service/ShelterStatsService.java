@@ -0,0 +1,233 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.entity.ApplicationStatus;
+import com.petconnect.project.entity.Shelter;
+import com.petconnect.project.entity.ShelterStats;
+import com.petconnect.project.repository.ShelterDashboardStats;
+import com.petconnect.project.repository.ShelterRepository;
+import com.petconnect.project.repository.ShelterStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the {@link ShelterStats} row of each shelter.
+ *
+ * Writers report their changes here within their own transaction, which is
+ * required, and the counters are adjusted with in-place updates that commit or
+ * roll back together with the change itself. Rows are inserted with the shelters
+ * by the seed data and backfilled at startup for any shelter that lacks one; a
+ * writer that still finds none, checked before its first update of the row, has
+ * one recounted and committed on its own before applying its change on top. A nightly job recomputes every row to repair drift
+ * from writes that bypass the application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShelterStatsService {
+
+    private final ShelterStatsRepository shelterStatsRepository;
+    private final ShelterRepository shelterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean repairing = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingRows() {
+        List<UUID> missing = shelterStatsRepository.findShelterIdsWithoutStats();
+        missing.forEach(this::createIfMissing);
+        if (!missing.isEmpty()) {
+            log.info("Created shelter stats for {} shelters without a row", missing.size());
+        }
+    }
+
+    /**
+     * The shelter's counters, created first if it has no row yet.
+     */
+    public ShelterStats get(UUID shelterId) {
+        return shelterStatsRepository.findById(shelterId).orElseGet(() -> {
+            createIfMissing(shelterId);
+            return shelterStatsRepository.findById(shelterId).orElseThrow();
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void petAdded(UUID shelterId, boolean available) {
+        adjustPets(shelterId, 1, available ? 1 : 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void petAvailabilityChanged(UUID shelterId, boolean available) {
+        availablePetsChanged(shelterId, available ? 1 : -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void availablePetsChanged(UUID shelterId, long delta) {
+        if (delta != 0) {
+            adjustPets(shelterId, 0, delta);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applicationStatusChanged(UUID shelterId, ApplicationStatus from, ApplicationStatus to) {
+        Map<ApplicationStatus, Long> delta = new EnumMap<>(ApplicationStatus.class);
+        delta.merge(from, -1L, Long::sum);
+        delta.merge(to, 1L, Long::sum);
+        applicationsChanged(shelterId, delta);
+    }
+
+    /**
+     * Applies the net change of many status changes at once, as one update.
+     *
+     * @param delta Change of the application count per status; absent statuses are unchanged
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applicationsChanged(UUID shelterId, Map<ApplicationStatus, Long> delta) {
+        if (delta.values().stream().allMatch(change -> change == 0)) {
+            return;
+        }
+        ensureRow(shelterId);
+        requireUpdated(shelterId, shelterStatsRepository.adjustApplications(shelterId,
+                delta.getOrDefault(ApplicationStatus.PENDING, 0L),
+                delta.getOrDefault(ApplicationStatus.APPROVED, 0L),
+                delta.getOrDefault(ApplicationStatus.REJECTED, 0L),
+                delta.getOrDefault(ApplicationStatus.WITHDRAWN, 0L)));
+    }
+
+    private void adjustPets(UUID shelterId, long total, long available) {
+        ensureRow(shelterId);
+        requireUpdated(shelterId, shelterStatsRepository.adjustPets(shelterId, total, available));
+    }
+
+    /**
+     * Creates the shelter's row before the caller's transaction updates it. The
+     * check is a plain read, which takes no locks; an update matching no row would
+     * hold a gap lock on MySQL that the insert of the recount then waits on.
+     */
+    private void ensureRow(UUID shelterId) {
+        if (!shelterStatsRepository.existsById(shelterId)) {
+            createIfMissing(shelterId);
+        }
+    }
+
+    private static void requireUpdated(UUID shelterId, int rows) {
+        if (rows == 0) {
+            throw new IllegalStateException("No stats row for shelter " + shelterId);
+        }
+    }
+
+    /**
+     * Inserts a recounted row for the shelter in a transaction of its own, which
+     * commits before the caller goes on. The recount cannot see the caller's
+     * uncommitted change, so the caller still applies its delta to the row; a
+     * concurrent writer that loses the insert race gets a duplicate key here and
+     * likewise just applies its delta to the winner's row.
+     */
+    private void createIfMissing(UUID shelterId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (!shelterStatsRepository.existsById(shelterId)) {
+                    shelterStatsRepository.insert(recount(shelterId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Shelter stats for {} were created by a concurrent writer", shelterId);
+        }
+    }
+
+    @Scheduled(cron = "${petconnect.shelter-stats.repair-cron:0 30 3 * * *}")
+    public void repairNightly() {
+        if (!repairing.compareAndSet(false, true)) {
+            log.warn("Shelter stats repair is already running; skipping this trigger");
+            return;
+        }
+        try {
+            repairAll();
+        } catch (RuntimeException e) {
+            log.error("Shelter stats repair failed", e);
+        } finally {
+            repairing.set(false);
+        }
+    }
+
+    /**
+     * Recomputes every shelter's counters, one shelter per transaction.
+     *
+     * @return Number of shelters whose stored counters had drifted
+     */
+    public int repairAll() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int shelters = 0;
+        int drifted = 0;
+        for (Shelter shelter : shelterRepository.findAll()) {
+            shelters++;
+            createIfMissing(shelter.getId());
+            boolean changed = Boolean.TRUE.equals(transaction.execute(status -> recompute(shelter.getId())));
+            if (changed) {
+                drifted++;
+                log.warn("Shelter stats for {} had drifted and were recomputed", shelter.getId());
+            }
+        }
+        log.info("Shelter stats repair checked {} shelters, {} had drifted", shelters, drifted);
+        return drifted;
+    }
+
+    /**
+     * Recounts the shelter's pets and applications into its row. The row lock is
+     * taken before anything else is read, so no in-place update interleaves with
+     * the recount and the recount sees every update committed ahead of it.
+     *
+     * @return Whether the stored counters differed from the recount
+     */
+    private boolean recompute(UUID shelterId) {
+        ShelterStats stats = shelterStatsRepository.findByIdForUpdate(shelterId)
+                .orElseThrow(() -> new IllegalStateException("No stats row for shelter " + shelterId));
+        ShelterStats counted = recount(shelterId);
+        boolean drifted = !sameCounters(stats, counted);
+        stats.setTotalPets(counted.getTotalPets());
+        stats.setAvailablePets(counted.getAvailablePets());
+        stats.setPendingApplications(counted.getPendingApplications());
+        stats.setApprovedApplications(counted.getApprovedApplications());
+        stats.setRejectedApplications(counted.getRejectedApplications());
+        stats.setWithdrawnApplications(counted.getWithdrawnApplications());
+        stats.setRecomputedAt(counted.getRecomputedAt());
+        shelterStatsRepository.save(stats);
+        return drifted;
+    }
+
+    private ShelterStats recount(UUID shelterId) {
+        ShelterDashboardStats counts = ShelterDashboardStats.of(shelterRepository.findDashboardCounts(shelterId));
+        Map<ApplicationStatus, Long> applications = counts.applicationsByStatus();
+        return new ShelterStats(shelterId, counts.totalPets(), counts.availablePets(),
+                applications.get(ApplicationStatus.PENDING), applications.get(ApplicationStatus.APPROVED),
+                applications.get(ApplicationStatus.REJECTED), applications.get(ApplicationStatus.WITHDRAWN),
+                LocalDateTime.now());
+    }
+
+    private static boolean sameCounters(ShelterStats a, ShelterStats b) {
+        return a.getTotalPets().equals(b.getTotalPets())
+                && a.getAvailablePets().equals(b.getAvailablePets())
+                && a.getPendingApplications().equals(b.getPendingApplications())
+                && a.getApprovedApplications().equals(b.getApprovedApplications())
+                && a.getRejectedApplications().equals(b.getRejectedApplications())
+                && a.getWithdrawnApplications().equals(b.getWithdrawnApplications());
+    }
+}
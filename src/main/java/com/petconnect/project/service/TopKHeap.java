@@ -0,0 +1,123 @@
+package com.petconnect.project.service;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of packed match keys used to keep the best {@code k} candidates
+ * while scoring, in O(n log k) time and O(k) memory.
+ *
+ * A key packs the score in cents into the high 32 bits and the inverted slot into
+ * the low 32 bits, so a larger key is a better match and equal scores prefer the
+ * lower slot. The root is always the worst candidate kept so far.
+ */
+final class TopKHeap {
+
+    private final long[] heap;
+    private int size;
+
+    TopKHeap(int capacity) {
+        this.heap = new long[Math.max(capacity, 0)];
+    }
+
+    static long key(int scoreCents, int slot) {
+        return ((long) scoreCents << 32) | (Integer.MAX_VALUE - slot);
+    }
+
+    static int scoreCents(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int slot(long key) {
+        return Integer.MAX_VALUE - (int) key;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == heap.length;
+    }
+
+    /**
+     * Key of the worst candidate currently kept; only meaningful when the heap is full.
+     */
+    long min() {
+        return heap[0];
+    }
+
+    /**
+     * Whether the heap would reject a candidate with this score whatever its slot.
+     */
+    boolean excludes(int scoreCents) {
+        return isFull() && (heap.length == 0 || scoreCents < scoreCents(heap[0]));
+    }
+
+    boolean offer(long key) {
+        if (size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+            return true;
+        }
+        if (heap.length == 0 || key <= heap[0]) {
+            return false;
+        }
+        heap[0] = key;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Offers every key held by {@code other}, leaving it unchanged.
+     */
+    void offerAll(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+    }
+
+    /**
+     * Drains the heap into an array ordered best-first.
+     */
+    long[] toSortedArray() {
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+        for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+            long tmp = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = tmp;
+        }
+        return sorted;
+    }
+
+    private void siftUp(int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private void siftDown(int index) {
+        long key = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right] < heap[child]) {
+                child = right;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
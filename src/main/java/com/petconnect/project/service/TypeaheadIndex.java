@@ -0,0 +1,351 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.event.PetChangedEvent;
+import com.petconnect.project.repository.PetRepository;
+import com.petconnect.project.repository.PetSearchRow;
+import com.petconnect.project.repository.ShelterRepository;
+import com.petconnect.project.repository.ShelterSummaryRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix suggestions for the search boxes: pet names, breeds and species for the
+ * pet browse page, shelter names, cities and states for the shelter directory.
+ *
+ * Each term is weighted by popularity, the number of available pets it covers,
+ * and sits in a character trie under every word it contains, so "retr" finds
+ * "Golden Retriever". Every trie node keeps the heaviest terms of its subtree,
+ * which makes a lookup a walk down the typed prefix. A changed term only
+ * recomputes the nodes on its own paths.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TypeaheadIndex {
+
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Term> BY_WEIGHT = Comparator.<Term>comparingInt(term -> term.weight).reversed()
+            .thenComparing(term -> term.key)
+            .thenComparing(term -> term.kind);
+
+    private final PetRepository petRepository;
+    private final ShelterRepository shelterRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Trie petTerms = new Trie();
+    private final Trie shelterTerms = new Trie();
+    private final Map<UUID, PetSearchRow> pets = new HashMap<>();
+    private final Map<UUID, ShelterSummaryRow> shelters = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<PetSearchRow> petRows = petRepository.findAvailablePetSearchRows();
+        List<ShelterSummaryRow> shelterRows = shelterRepository.findShelterSummaryRows();
+        lock.writeLock().lock();
+        try {
+            pets.clear();
+            shelters.clear();
+            Map<String, Term> petWeights = new HashMap<>();
+            for (PetSearchRow row : petRows) {
+                pets.put(row.id(), row);
+                count(petWeights, Kind.PET, row.name(), 1);
+                count(petWeights, Kind.BREED, row.breed(), 1);
+                count(petWeights, Kind.SPECIES, row.species(), 1);
+            }
+            Map<String, Term> shelterWeights = new HashMap<>();
+            for (ShelterSummaryRow row : shelterRows) {
+                shelters.put(row.id(), row);
+                int weight = shelterWeight(row);
+                count(shelterWeights, Kind.SHELTER, row.name(), weight);
+                count(shelterWeights, Kind.CITY, row.city(), weight);
+                count(shelterWeights, Kind.STATE, row.state(), weight);
+            }
+            petTerms.load(petWeights);
+            shelterTerms.load(shelterWeights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Typeahead index loaded with {} available pets and {} shelters", petRows.size(), shelterRows.size());
+    }
+
+    /**
+     * Moves the changed pet's weight to its current name, breed and species, and
+     * re-reads its shelter's available pet count.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPetChanged(PetChangedEvent event) {
+        Optional<PetSearchRow> row = petRepository.findAvailablePetSearchRowById(event.petId());
+        Optional<ShelterSummaryRow> shelter = shelterRepository.findShelterSummaryRowById(event.shelterId());
+        lock.writeLock().lock();
+        try {
+            PetSearchRow previous = pets.remove(event.petId());
+            if (previous != null) {
+                adjustPet(previous, -1);
+            }
+            row.ifPresent(current -> {
+                pets.put(current.id(), current);
+                adjustPet(current, 1);
+            });
+            shelter.ifPresent(this::updateShelter);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most popular pet names, breeds and species with a word starting with
+     * {@code prefix}, heaviest first.
+     */
+    public List<Suggestion> suggestPets(String prefix, int limit) {
+        return suggest(petTerms, prefix, limit);
+    }
+
+    /**
+     * Shelter names, cities and states with a word starting with {@code prefix},
+     * those with the most available pets first.
+     */
+    public List<Suggestion> suggestShelters(String prefix, int limit) {
+        return suggest(shelterTerms, prefix, limit);
+    }
+
+    private List<Suggestion> suggest(Trie trie, String prefix, int limit) {
+        String key = normalize(prefix).stripLeading();
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Term> top = trie.top(key);
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, top.size()));
+            for (int i = 0; i < top.size() && i < limit; i++) {
+                Term term = top.get(i);
+                suggestions.add(new Suggestion(term.text, term.kind, term.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adjustPet(PetSearchRow row, int delta) {
+        petTerms.adjust(Kind.PET, row.name(), delta);
+        petTerms.adjust(Kind.BREED, row.breed(), delta);
+        petTerms.adjust(Kind.SPECIES, row.species(), delta);
+    }
+
+    private void updateShelter(ShelterSummaryRow row) {
+        ShelterSummaryRow previous = shelters.put(row.id(), row);
+        if (previous != null) {
+            adjustShelter(previous, -shelterWeight(previous));
+        }
+        adjustShelter(row, shelterWeight(row));
+    }
+
+    private void adjustShelter(ShelterSummaryRow row, int delta) {
+        shelterTerms.adjust(Kind.SHELTER, row.name(), delta);
+        shelterTerms.adjust(Kind.CITY, row.city(), delta);
+        shelterTerms.adjust(Kind.STATE, row.state(), delta);
+    }
+
+    // A shelter without available pets is still worth suggesting
+    private static int shelterWeight(ShelterSummaryRow row) {
+        return 1 + (int) row.availablePets();
+    }
+
+    private static void count(Map<String, Term> terms, Kind kind, String text, int weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String key = normalize(text).strip();
+        terms.computeIfAbsent(kind.ordinal() + key, id -> new Term(kind, text.strip(), key)).weight += weight;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    public enum Kind {
+        PET("Pet"),
+        BREED("Breed"),
+        SPECIES("Species"),
+        SHELTER("Shelter"),
+        CITY("City"),
+        STATE("State");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * @param weight Number of available pets the suggestion covers, plus one per
+     *               shelter for shelter names and locations
+     */
+    public record Suggestion(String text, Kind kind, int weight) {
+    }
+
+    private static final class Term {
+        private final Kind kind;
+        private final String text;
+        private final String key;
+        private int weight;
+
+        Term(Kind kind, String text, String key) {
+            this.kind = kind;
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        // Terms whose key, from one of its word starts, ends at this node
+        private final List<Term> terms = new ArrayList<>(1);
+        // Heaviest terms in this subtree, shared with readers and never mutated
+        private List<Term> top = List.of();
+    }
+
+    private static final class Trie {
+        private final Map<String, Term> terms = new HashMap<>();
+        private Node root = new Node();
+
+        List<Term> top(String prefix) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node == null ? List.of() : node.top;
+        }
+
+        /**
+         * Replaces the contents with {@code weighted}, filling in the subtree tops in
+         * one pass rather than once per term.
+         */
+        void load(Map<String, Term> weighted) {
+            terms.clear();
+            terms.putAll(weighted);
+            root = new Node();
+            for (Term term : weighted.values()) {
+                for (int start : wordStarts(term.key)) {
+                    Node node = root;
+                    for (int i = start; i < term.key.length(); i++) {
+                        node = node.children.computeIfAbsent(term.key.charAt(i), c -> new Node());
+                    }
+                    if (!node.terms.contains(term)) {
+                        node.terms.add(term);
+                    }
+                }
+            }
+            fillTops(root);
+        }
+
+        private void fillTops(Node node) {
+            for (Node child : node.children.values()) {
+                fillTops(child);
+            }
+            node.top = topOf(node);
+        }
+
+        /**
+         * Adds {@code delta} to a term's weight, creating it or dropping it once it
+         * covers nothing, and recomputes the nodes on its paths.
+         */
+        void adjust(Kind kind, String text, int delta) {
+            if (text == null || text.isBlank() || delta == 0) {
+                return;
+            }
+            String key = normalize(text).strip();
+            String id = kind.ordinal() + key;
+            Term term = terms.get(id);
+            if (term == null) {
+                if (delta < 0) {
+                    return;
+                }
+                term = new Term(kind, text.strip(), key);
+                terms.put(id, term);
+            }
+            term.weight += delta;
+            boolean removed = term.weight <= 0;
+            if (removed) {
+                terms.remove(id);
+            }
+            for (int start : wordStarts(key)) {
+                update(key.substring(start), term, removed);
+            }
+        }
+
+        private void update(String path, Term term, boolean removed) {
+            Node[] nodes = new Node[path.length() + 1];
+            nodes[0] = root;
+            for (int i = 0; i < path.length(); i++) {
+                nodes[i + 1] = removed ? nodes[i].children.get(path.charAt(i))
+                        : nodes[i].children.computeIfAbsent(path.charAt(i), c -> new Node());
+                if (nodes[i + 1] == null) {
+                    return;
+                }
+            }
+            Node leaf = nodes[path.length()];
+            if (removed) {
+                leaf.terms.remove(term);
+            } else if (!leaf.terms.contains(term)) {
+                leaf.terms.add(term);
+            }
+            for (int i = path.length(); i >= 0; i--) {
+                nodes[i].top = topOf(nodes[i]);
+                // A node with nothing under it is pruned, so no empty top outlives its term
+                if (i > 0 && nodes[i].top.isEmpty()) {
+                    nodes[i - 1].children.remove(path.charAt(i - 1));
+                }
+            }
+        }
+
+        private static List<Term> topOf(Node node) {
+            // A set, as a term can reach a node through more than one of its words
+            Set<Term> distinct = new HashSet<>(node.terms);
+            for (Node child : node.children.values()) {
+                distinct.addAll(child.top);
+            }
+            List<Term> candidates = new ArrayList<>(distinct);
+            candidates.sort(BY_WEIGHT);
+            return List.copyOf(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+        }
+
+        private static List<Integer> wordStarts(String key) {
+            List<Integer> starts = new ArrayList<>(2);
+            starts.add(0);
+            for (int i = 1; i < key.length(); i++) {
+                if (key.charAt(i - 1) == ' ') {
+                    starts.add(i);
+                }
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.petconnect.project.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of {@link ScoringPlan#scoreCents}, scoring one pet per lane.
+ * The categorical factors are gathered from {@link ScoringPlan#featureUnits()} with
+ * {@link PetMatchIndex.Snapshot#packedFeatures()} as the index map, and the budget
+ * factor is computed in double lanes.
+ *
+ * Every intermediate value is an integer well below 2^53, so the double lanes
+ * hold it exactly and the scores are bit-identical to the scalar path rather
+ * than merely close. This class must only be loaded when the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class VectorPetScorer {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Same lane count as DOUBLES, so integer masks cast straight across
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private VectorPetScorer() {
+    }
+
+    static int lanes() {
+        return DOUBLES.length();
+    }
+
+    /**
+     * Scores slots {@code [from, to)} into {@code cents[0 .. to - from)}.
+     */
+    static void scoreCents(ScoringPlan plan, PetMatchIndex.Snapshot pets, int from, int to, int[] cents) {
+        int[] packed = pets.packedFeatures();
+        int[] fees = pets.feeCentsColumn();
+        int[] featureUnits = plan.featureUnits();
+        for (int slot = from; slot < to; slot += INTS.length()) {
+            VectorMask<Integer> inRange = INTS.indexInRange(slot, to);
+            IntVector categorical = IntVector.fromArray(INTS, featureUnits, 0, packed, slot, inRange);
+            IntVector feeCents = IntVector.fromArray(INTS, fees, slot, inRange);
+
+            DoubleVector units = ((DoubleVector) categorical.convertShape(VectorOperators.I2D, DOUBLES, 0))
+                    .add(budgetUnits(plan, feeCents));
+            // Rounded half up to cents; truncating the exact quotient of integers is integer division
+            DoubleVector scoreCents = units.add(ScoringPlan.UNITS_PER_CENT / 2).div(ScoringPlan.UNITS_PER_CENT);
+            ((IntVector) scoreCents.convertShape(VectorOperators.D2I, INTS, 0)).intoArray(cents, slot - from, inRange);
+        }
+    }
+
+    private static DoubleVector budgetUnits(ScoringPlan plan, IntVector feeCents) {
+        long maxBudgetCents = plan.getCriteria().getMaxFeeCents();
+        double weight = plan.getWeights().budget();
+        if (maxBudgetCents == MatchCriteria.NO_BUDGET) {
+            return DoubleVector.broadcast(DOUBLES, weight * ScoringPlan.NO_BUDGET_TENTHS * ScoringPlan.UNITS_PER_TENTH);
+        }
+
+        DoubleVector fee = (DoubleVector) feeCents.convertShape(VectorOperators.I2D, DOUBLES, 0);
+        // Lanes over budget (including a zero budget) are replaced below
+        DoubleVector usageTenThousandths = (DoubleVector) fee.mul(20_000.0).add(maxBudgetCents)
+                .div(2.0 * maxBudgetCents)
+                .convert(VectorOperators.D2L, 0)
+                .convert(VectorOperators.L2D, 0);
+        DoubleVector withinBudget = DoubleVector.broadcast(DOUBLES, ScoringPlan.UNITS_PER_POINT)
+                .sub(usageTenThousandths.mul(3.0))
+                .max(ScoringPlan.UNITS_PER_POINT / 2)
+                .mul(weight);
+
+        VectorMask<Double> overBudget = fee.compare(VectorOperators.GT, (double) maxBudgetCents);
+        VectorMask<Double> free = feeCents.eq(0).cast(DOUBLES);
+        return withinBudget
+                .blend(weight * ScoringPlan.OVER_BUDGET_TENTHS * ScoringPlan.UNITS_PER_TENTH, overBudget)
+                .blend(weight * ScoringPlan.FREE_TENTHS * ScoringPlan.UNITS_PER_TENTH, free);
+    }
+}
@@ -19,6 +19,19 @@ INSERT INTO pets (id, name, species, breed, age, age_group, size, weight, gender
 SELECT '550e8400-e29b-41d4-a716-446655440006', 'Luna', 'Cat', 'Siamese', 2, 'YOUNG', 'MEDIUM', 8.2, 'Female', 'Cream and Brown', 'Gentle and affectionate cat, great with children', 150.00, '550e8400-e29b-41d4-a716-446655440004', true
 WHERE NOT EXISTS (SELECT 1 FROM pets WHERE id = '550e8400-e29b-41d4-a716-446655440006');
 
+-- Counters for every shelter inserted above; the application only adjusts existing rows
+INSERT INTO shelter_stats (shelter_id, total_pets, available_pets, pending_applications, approved_applications, rejected_applications, withdrawn_applications, recomputed_at)
+SELECT s.id,
+       (SELECT COUNT(*) FROM pets p WHERE p.shelter_id = s.id),
+       (SELECT COUNT(*) FROM pets p WHERE p.shelter_id = s.id AND p.is_available = true),
+       (SELECT COUNT(*) FROM adoption_applications a WHERE a.shelter_id = s.id AND a.status = 'PENDING'),
+       (SELECT COUNT(*) FROM adoption_applications a WHERE a.shelter_id = s.id AND a.status = 'APPROVED'),
+       (SELECT COUNT(*) FROM adoption_applications a WHERE a.shelter_id = s.id AND a.status = 'REJECTED'),
+       (SELECT COUNT(*) FROM adoption_applications a WHERE a.shelter_id = s.id AND a.status = 'WITHDRAWN'),
+       CURRENT_TIMESTAMP
+FROM shelters s
+WHERE NOT EXISTS (SELECT 1 FROM shelter_stats st WHERE st.shelter_id = s.id);
+
 -- Insert sample lifestyle profile
 MERGE INTO lifestyle_profiles (id, user_id, living_situation, yard_size, activity_level, experience_level, time_availability, has_children, has_other_pets, preferred_pet_age, preferred_pet_size, max_adoption_fee) VALUES
 ('550e8400-e29b-41d4-a716-446655440007', '550e8400-e29b-41d4-a716-446655440003', 'house', 'medium', 'MODERATE', 'some_experience', 4, false, false, 'ADULT', 'MEDIUM', 300.00);
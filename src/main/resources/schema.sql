@@ -2,6 +2,11 @@
 -- Advanced Pet Adoption Platform
 
 -- Drop tables if they exist (reverse order due to foreign keys)
+DROP TABLE IF EXISTS shelter_stats;
+DROP TABLE IF EXISTS match_score_runs;
+DROP TABLE IF EXISTS match_score_catalog_pets;
+DROP TABLE IF EXISTS match_score_summaries;
+DROP TABLE IF EXISTS match_scores;
 DROP TABLE IF EXISTS community_posts;
 DROP TABLE IF EXISTS adoption_applications;
 DROP TABLE IF EXISTS personality_profiles;
@@ -60,6 +65,7 @@ CREATE TABLE IF NOT EXISTS pets (
   adoption_fee DECIMAL(10,2),
   shelter_id VARCHAR(36),
   is_available BOOLEAN,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   FOREIGN KEY (shelter_id) REFERENCES shelters(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -148,6 +154,70 @@ CREATE TABLE community_posts (
     FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE SET NULL
 );
 
+-- Nightly precomputed matches (written by the match score batch)
+CREATE TABLE match_scores (
+    user_id VARCHAR(36) NOT NULL,
+    rank_position INTEGER NOT NULL,
+    pet_id VARCHAR(36) NOT NULL,
+    score_cents INTEGER NOT NULL,
+    reasons INTEGER NOT NULL,
+    run_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (user_id, rank_position)
+);
+
+CREATE TABLE match_score_summaries (
+    user_id VARCHAR(36) PRIMARY KEY,
+    run_id VARCHAR(36) NOT NULL,
+    lifestyle_signature BIGINT NOT NULL,
+    scoring_weights BIGINT NOT NULL,
+    catalog_id VARCHAR(36) NOT NULL,
+    ranked_count INTEGER NOT NULL,
+    total_matches INTEGER NOT NULL,
+    excellent_matches INTEGER NOT NULL,
+    great_matches INTEGER NOT NULL,
+    good_matches INTEGER NOT NULL,
+    computed_at TIMESTAMP NOT NULL
+);
+
+-- The catalogue each batch run scored against; summaries reference it by catalog_id
+CREATE TABLE match_score_catalog_pets (
+    catalog_id VARCHAR(36) NOT NULL,
+    pet_id VARCHAR(36) NOT NULL,
+    size VARCHAR(20) NOT NULL,
+    age_group VARCHAR(20) NOT NULL,
+    adoption_fee DECIMAL(10,2) NOT NULL,
+    energy_level VARCHAR(20) NOT NULL,
+    sociability VARCHAR(20) NOT NULL,
+    trainability VARCHAR(20) NOT NULL,
+    noise_level VARCHAR(20) NOT NULL,
+    affection_level INTEGER NOT NULL,
+    PRIMARY KEY (catalog_id, pet_id)
+);
+
+-- Batch checkpoints: last_profile_id is the last lifestyle profile committed
+CREATE TABLE match_score_runs (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED')),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NULL,
+    last_profile_id VARCHAR(36) NOT NULL,
+    profiles_processed BIGINT NOT NULL,
+    rows_written BIGINT NOT NULL
+);
+
+-- Materialised per-shelter counters, adjusted in place by the writes that change them
+CREATE TABLE shelter_stats (
+    shelter_id VARCHAR(36) PRIMARY KEY,
+    total_pets BIGINT NOT NULL,
+    available_pets BIGINT NOT NULL,
+    pending_applications BIGINT NOT NULL,
+    approved_applications BIGINT NOT NULL,
+    rejected_applications BIGINT NOT NULL,
+    withdrawn_applications BIGINT NOT NULL,
+    recomputed_at TIMESTAMP NULL,
+    FOREIGN KEY (shelter_id) REFERENCES shelters(id) ON DELETE CASCADE
+);
+
 -- Create indexes for better performance
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_username ON users(username);
@@ -157,6 +227,8 @@ CREATE INDEX idx_pets_available ON pets(is_available);
 CREATE INDEX idx_pets_species ON pets(species);
 CREATE INDEX idx_pets_size ON pets(size);
 CREATE INDEX idx_pets_age_group ON pets(age_group);
+CREATE INDEX idx_pets_available_created ON pets(is_available, created_at, id);
+CREATE INDEX idx_applications_shelter_date ON adoption_applications(shelter_id, application_date, id);
 CREATE INDEX idx_adoption_applications_applicant ON adoption_applications(applicant_id);
 CREATE INDEX idx_adoption_applications_pet ON adoption_applications(pet_id);
 CREATE INDEX idx_adoption_applications_shelter ON adoption_applications(shelter_id);
@@ -164,6 +236,7 @@ CREATE INDEX idx_adoption_applications_status ON adoption_applications(status);
 CREATE INDEX idx_community_posts_author ON community_posts(author_id);
 CREATE INDEX idx_community_posts_type ON community_posts(post_type);
 CREATE INDEX idx_community_posts_published ON community_posts(is_published);
+CREATE INDEX idx_match_scores_run ON match_scores(run_id);
 
 -- Insert sample data for development (with manual UUIDs for H2)
 INSERT INTO users (id, username, email, password, first_name, last_name, role, phone, address, city, state, zip_code) VALUES
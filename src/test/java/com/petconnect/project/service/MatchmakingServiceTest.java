@@ -0,0 +1,100 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.*;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.PetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bucket pruning, including a pruned visit that runs over its budget and falls
+ * back to scoring every pet on the pool, must rank exactly like an exhaustive pass.
+ */
+class MatchmakingServiceTest {
+
+    private static final int PETS = 40_000;
+
+    private ForkJoinPool matchScoringPool;
+    private PetMatchIndex.Snapshot pets;
+
+    @BeforeEach
+    void setUp() {
+        matchScoringPool = new ForkJoinPool(4);
+        Random random = new Random(11);
+        // Two values per attribute keep the buckets few and large, so pruning pays off
+        List<PetFeatureRow> rows = new ArrayList<>(PETS);
+        for (int i = 0; i < PETS; i++) {
+            rows.add(new PetFeatureRow(new UUID(random.nextLong(), random.nextLong()),
+                    PetSize.values()[random.nextInt(2)],
+                    PetAgeGroup.values()[random.nextInt(2)],
+                    BigDecimal.valueOf(random.nextInt(50_000), 2),
+                    EnergyLevel.values()[random.nextInt(2)],
+                    SociabilityLevel.values()[random.nextInt(2)],
+                    TrainabilityLevel.values()[random.nextInt(2)],
+                    random.nextBoolean() ? "quiet" : "vocal",
+                    3 + random.nextInt(2)));
+        }
+        pets = PetMatchIndex.Snapshot.of(rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchScoringPool.shutdown();
+    }
+
+    @Test
+    void prunedRankingMatchesExhaustiveRanking() {
+        MatchmakingService pruned = matchmakingService(true);
+        MatchmakingService exhaustive = matchmakingService(false);
+        ScoringPlan plan = ScoringPlan.compile(criteria(), pruned.getScoringWeights());
+
+        // A shallow ranking stays within the pruning budget, a full-depth one cannot
+        for (int depth : new int[]{96, PETS}) {
+            RankedMatches expected = exhaustive.rankMatches(plan, pets, depth);
+            RankedMatches actual = pruned.rankMatches(plan, pets, depth);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.getTotal(), actual.getTotal());
+            assertEquals(expected.getExcellentMatches(), actual.getExcellentMatches());
+            assertEquals(expected.getGreatMatches(), actual.getGreatMatches());
+            assertEquals(expected.getGoodMatches(), actual.getGoodMatches());
+            for (int rank = 0; rank < expected.size(); rank++) {
+                assertEquals(expected.petId(rank), actual.petId(rank), "pet at rank " + rank);
+                assertEquals(expected.scoreCents(rank), actual.scoreCents(rank), "score at rank " + rank);
+            }
+        }
+    }
+
+    private MatchmakingService matchmakingService(boolean bucketPruning) {
+        MatchingProperties matchingProperties = new MatchingProperties();
+        matchingProperties.setBucketPruning(bucketPruning);
+        matchingProperties.setParallelThreshold(1_000);
+        return new MatchmakingService(mock(PetRepository.class), mock(PetMatchIndex.class),
+                mock(MatchResultCache.class), new ScoringPlanner(matchingProperties), mock(PrecomputedRankings.class),
+                matchingProperties, matchScoringPool);
+    }
+
+    private static MatchCriteria criteria() {
+        LifestyleProfile lifestyle = new LifestyleProfile();
+        lifestyle.setLivingSituation("house");
+        lifestyle.setYardSize("large");
+        lifestyle.setActivityLevel(EnergyLevel.values()[1]);
+        lifestyle.setExperienceLevel("some_experience");
+        lifestyle.setHasChildren(true);
+        lifestyle.setHasOtherPets(false);
+        lifestyle.setPreferredPetSize(PetSize.values()[1]);
+        lifestyle.setMaxAdoptionFee(new BigDecimal("250.00"));
+        return MatchCriteria.from(lifestyle);
+    }
+}
@@ -0,0 +1,161 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.*;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.PetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Re-ranking one changed pet at a time with {@link RankedMatches#withPetChanged}
+ * must hold exactly what a fresh ranking of the refreshed catalogue holds, apart
+ * from the ranks a truncated ranking loses when pets drop out of it.
+ */
+class RankedMatchesTest {
+
+    private static final int PETS = 3_000;
+    private static final int CHANGES = 600;
+    private static final int CHECK_EVERY = 50;
+
+    private static final String[] NOISE_LEVELS = {"quiet", "moderate", "vocal"};
+    private static final String[] LIVING_SITUATIONS = {"apartment", "house", "condo"};
+    private static final String[] EXPERIENCE_LEVELS = {"first_time", "some_experience", "very_experienced"};
+
+    private MatchmakingService matchmakingService;
+    private ScoringPlanner scoringPlanner;
+
+    @BeforeEach
+    void setUp() {
+        MatchingProperties matchingProperties = new MatchingProperties();
+        scoringPlanner = new ScoringPlanner(matchingProperties);
+        matchmakingService = new MatchmakingService(mock(PetRepository.class), mock(PetMatchIndex.class),
+                mock(MatchResultCache.class), scoringPlanner, mock(PrecomputedRankings.class),
+                matchingProperties, mock(ForkJoinPool.class));
+    }
+
+    @Test
+    void incrementalRerankMatchesFreshRanking() {
+        Random random = new Random(5);
+        List<UUID> petIds = new ArrayList<>();
+        List<PetFeatureRow> rows = new ArrayList<>(PETS);
+        for (int i = 0; i < PETS; i++) {
+            PetFeatureRow row = row(new UUID(random.nextLong(), random.nextLong()), random);
+            petIds.add(row.id());
+            rows.add(row);
+        }
+        PetMatchIndex.Snapshot pets = PetMatchIndex.Snapshot.of(rows);
+
+        List<ScoringPlan> plans = new ArrayList<>();
+        for (int sample = 0; sample < 4; sample++) {
+            plans.add(ScoringPlan.compile(MatchCriteria.from(lifestyle(random)), scoringPlanner.getWeights()));
+        }
+        // A truncated ranking and one holding every pet
+        int[] depths = {48, Integer.MAX_VALUE};
+        RankedMatches[][] rankings = new RankedMatches[plans.size()][depths.length];
+        for (int p = 0; p < plans.size(); p++) {
+            for (int d = 0; d < depths.length; d++) {
+                rankings[p][d] = matchmakingService.rankMatches(plans.get(p), pets, depths[d]);
+            }
+        }
+
+        for (int change = 1; change <= CHANGES; change++) {
+            PetMatchIndex.Snapshot previous = pets;
+            UUID petId;
+            int kind = random.nextInt(4);
+            if (kind == 0) {
+                // A new pet, or a known one becoming available again
+                petId = random.nextBoolean() ? new UUID(random.nextLong(), random.nextLong())
+                        : petIds.get(random.nextInt(petIds.size()));
+                pets = pets.with(row(petId, random));
+            } else if (kind == 1) {
+                petId = petIds.get(random.nextInt(petIds.size()));
+                pets = pets.without(petId);
+            } else {
+                petId = previous.petId(random.nextInt(previous.size()));
+                pets = pets.with(row(petId, random));
+            }
+            if (!petIds.contains(petId)) {
+                petIds.add(petId);
+            }
+
+            int before = previous.slotOf(petId);
+            int after = pets.slotOf(petId);
+            for (int p = 0; p < plans.size(); p++) {
+                for (int d = 0; d < depths.length; d++) {
+                    rankings[p][d] = matchmakingService.applyPetChange(rankings[p][d], petId, previous, before,
+                            pets, after);
+                }
+            }
+
+            if (change % CHECK_EVERY == 0) {
+                for (int p = 0; p < plans.size(); p++) {
+                    for (int d = 0; d < depths.length; d++) {
+                        RankedMatches expected = matchmakingService.rankMatches(plans.get(p), pets, depths[d]);
+                        assertSameRanking(expected, rankings[p][d], depths[d] == Integer.MAX_VALUE,
+                                "plan " + p + ", depth " + depths[d] + ", change " + change);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertSameRanking(RankedMatches expected, RankedMatches actual, boolean complete,
+                                          String context) {
+        assertEquals(expected.getTotal(), actual.getTotal(), context);
+        assertEquals(expected.getExcellentMatches(), actual.getExcellentMatches(), context);
+        assertEquals(expected.getGreatMatches(), actual.getGreatMatches(), context);
+        assertEquals(expected.getGoodMatches(), actual.getGoodMatches(), context);
+        if (complete) {
+            assertEquals(expected.size(), actual.size(), context);
+        } else {
+            assertTrue(actual.size() <= expected.size(), context);
+        }
+        for (int rank = 0; rank < actual.size(); rank++) {
+            assertEquals(expected.petId(rank), actual.petId(rank), context + ", pet at rank " + rank);
+            assertEquals(expected.scoreCents(rank), actual.scoreCents(rank), context + ", score at rank " + rank);
+            assertEquals(expected.reasons(rank), actual.reasons(rank), context + ", reasons at rank " + rank);
+        }
+    }
+
+    private static PetFeatureRow row(UUID id, Random random) {
+        return new PetFeatureRow(id,
+                pick(random, PetSize.values()),
+                pick(random, PetAgeGroup.values()),
+                BigDecimal.valueOf(random.nextInt(50_000), 2),
+                pick(random, EnergyLevel.values()),
+                pick(random, SociabilityLevel.values()),
+                pick(random, TrainabilityLevel.values()),
+                pick(random, NOISE_LEVELS),
+                1 + random.nextInt(5));
+    }
+
+    private static LifestyleProfile lifestyle(Random random) {
+        LifestyleProfile lifestyle = new LifestyleProfile();
+        lifestyle.setLivingSituation(pick(random, LIVING_SITUATIONS));
+        lifestyle.setYardSize("small");
+        lifestyle.setActivityLevel(pick(random, EnergyLevel.values()));
+        lifestyle.setExperienceLevel(pick(random, EXPERIENCE_LEVELS));
+        lifestyle.setHasChildren(random.nextBoolean());
+        lifestyle.setHasOtherPets(random.nextBoolean());
+        lifestyle.setPreferredPetSize(pick(random, PetSize.values()));
+        lifestyle.setPreferredPetAge(pick(random, PetAgeGroup.values()));
+        lifestyle.setMaxAdoptionFee(new BigDecimal("250.00"));
+        return lifestyle;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,162 @@
+package com.petconnect.project.service;
+
+import com.petconnect.project.config.MatchingProperties;
+import com.petconnect.project.entity.*;
+import com.petconnect.project.repository.PetFeatureRow;
+import com.petconnect.project.repository.PetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The Vector API kernel must reproduce {@link MatchmakingService#calculateCompatibilityScore}
+ * for every pet, under the configured weights and random ones. Needs the JVM to be
+ * started with {@code --add-modules jdk.incubator.vector}, as the build does.
+ */
+class VectorPetScorerTest {
+
+    private static final int CRITERIA_SAMPLES = 64;
+    private static final int RANDOM_PETS = 2_000;
+
+    private static final String[] NOISE_LEVELS = {"quiet", "moderate", "vocal"};
+    private static final String[] LIVING_SITUATIONS = {"apartment", "house", "condo"};
+    private static final String[] YARD_SIZES = {"none", "small", "large"};
+    private static final String[] EXPERIENCE_LEVELS = {"first_time", "some_experience", "very_experienced", "unknown"};
+    private static final BigDecimal[] BUDGETS = {null, BigDecimal.ZERO, new BigDecimal("1.00"),
+            new BigDecimal("125.49"), new BigDecimal("300.00"), new BigDecimal("99999999.99")};
+
+    private ScoringPlanner scoringPlanner;
+    private MatchmakingService matchmakingService;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector is not present");
+        MatchingProperties matchingProperties = new MatchingProperties();
+        scoringPlanner = new ScoringPlanner(matchingProperties);
+        matchmakingService = new MatchmakingService(mock(PetRepository.class), mock(PetMatchIndex.class),
+                mock(MatchResultCache.class), scoringPlanner, mock(PrecomputedRankings.class),
+                matchingProperties, mock(ForkJoinPool.class));
+    }
+
+    @Test
+    void matchesScalarScoresOnEveryAttributeCombination() {
+        int[] feeCents = {0, 1, 4_999, 12_550, 30_000, 99_999};
+        List<Pet> pets = new ArrayList<>();
+        for (EnergyLevel energy : EnergyLevel.values()) {
+            for (PetSize size : PetSize.values()) {
+                for (PetAgeGroup age : PetAgeGroup.values()) {
+                    for (TrainabilityLevel trainability : TrainabilityLevel.values()) {
+                        for (SociabilityLevel sociability : SociabilityLevel.values()) {
+                            for (String noise : NOISE_LEVELS) {
+                                for (int affection = 3; affection <= 4; affection++) {
+                                    BigDecimal fee = BigDecimal.valueOf(feeCents[pets.size() % feeCents.length], 2);
+                                    pets.add(pet(new PetFeatureRow(new UUID(0, pets.size()), size, age, fee,
+                                            energy, sociability, trainability, noise, affection)));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertVectorMatchesScalar(pets, new Random(42));
+    }
+
+    @Test
+    void matchesScalarScoresOnRandomCatalogue() {
+        Random random = new Random(7);
+        List<Pet> pets = new ArrayList<>(RANDOM_PETS);
+        for (int i = 0; i < RANDOM_PETS; i++) {
+            pets.add(pet(new PetFeatureRow(new UUID(random.nextLong(), random.nextLong()),
+                    pick(random, PetSize.values()),
+                    pick(random, PetAgeGroup.values()),
+                    BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    pick(random, EnergyLevel.values()),
+                    pick(random, SociabilityLevel.values()),
+                    pick(random, TrainabilityLevel.values()),
+                    pick(random, NOISE_LEVELS),
+                    1 + random.nextInt(5))));
+        }
+        assertVectorMatchesScalar(pets, new Random(43));
+    }
+
+    private void assertVectorMatchesScalar(List<Pet> pets, Random random) {
+        PetMatchIndex.Snapshot snapshot = PetMatchIndex.Snapshot.of(pets.stream().map(PetFeatureRow::from).toList());
+        Map<UUID, Pet> petsById = pets.stream().collect(Collectors.toMap(Pet::getId, Function.identity()));
+        ScoringWeights configured = scoringPlanner.getWeights();
+        int[] vector = new int[snapshot.size()];
+
+        for (int sample = 0; sample < CRITERIA_SAMPLES; sample++) {
+            LifestyleProfile lifestyle = lifestyle(random);
+            scoringPlanner.setWeights(sample % 2 == 0 ? configured : randomWeights(random));
+            ScoringPlan plan = ScoringPlan.compile(MatchCriteria.from(lifestyle), scoringPlanner.getWeights());
+            VectorPetScorer.scoreCents(plan, snapshot, 0, snapshot.size(), vector);
+            for (int slot = 0; slot < snapshot.size(); slot++) {
+                Pet pet = petsById.get(snapshot.petId(slot));
+                double scalar = matchmakingService.calculateCompatibilityScore(lifestyle, pet);
+                int currentSlot = slot;
+                assertEquals(scalar, vector[slot] / 100.0, 0.005, () -> "pet " + pet.getId() + " in slot "
+                        + currentSlot + " under " + plan.getWeights());
+            }
+        }
+    }
+
+    private static LifestyleProfile lifestyle(Random random) {
+        LifestyleProfile lifestyle = new LifestyleProfile();
+        lifestyle.setLivingSituation(pick(random, LIVING_SITUATIONS));
+        lifestyle.setYardSize(pick(random, YARD_SIZES));
+        lifestyle.setActivityLevel(pick(random, EnergyLevel.values()));
+        lifestyle.setExperienceLevel(pick(random, EXPERIENCE_LEVELS));
+        lifestyle.setHasChildren(random.nextBoolean());
+        lifestyle.setHasOtherPets(random.nextBoolean());
+        lifestyle.setPreferredPetSize(random.nextInt(5) == 0 ? null : pick(random, PetSize.values()));
+        lifestyle.setPreferredPetAge(random.nextInt(5) == 0 ? null : pick(random, PetAgeGroup.values()));
+        lifestyle.setMaxAdoptionFee(pick(random, BUDGETS));
+        return lifestyle;
+    }
+
+    private static Pet pet(PetFeatureRow row) {
+        Pet pet = new Pet();
+        pet.setId(row.id());
+        pet.setSize(row.size());
+        pet.setAgeGroup(row.ageGroup());
+        pet.setAdoptionFee(row.adoptionFee());
+        pet.setAvailable(true);
+
+        PersonalityProfile personality = new PersonalityProfile();
+        personality.setEnergyLevel(row.energyLevel());
+        personality.setSociability(row.sociability());
+        personality.setTrainability(row.trainability());
+        personality.setNoiseLevel(row.noiseLevel());
+        personality.setAffectionLevel(row.affectionLevel());
+        personality.setPet(pet);
+        pet.setPersonalityProfile(personality);
+        return pet;
+    }
+
+    private static ScoringWeights randomWeights(Random random) {
+        int[] weights = new int[7];
+        for (int point = 0; point < ScoringWeights.TOTAL; point++) {
+            weights[random.nextInt(weights.length)]++;
+        }
+        return new ScoringWeights(weights[0], weights[1], weights[2], weights[3], weights[4], weights[5], weights[6]);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}